@@ -0,0 +1,39 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+final class BenchmarkData {
+
+    static final UUID DEVELOPER_ROLE_UUID = UUID.fromString("1b3c333b-36e7-4b64-aa15-c22ed5908ce4");
+
+    private BenchmarkData() {}
+
+    static Role developerRole() {
+        return Role.builder()
+                .id(DEVELOPER_ROLE_UUID)
+                .name("Developer")
+                .build();
+    }
+
+    static Membership membership() {
+        return Membership.builder()
+                .id(UUID.randomUUID())
+                .role(developerRole())
+                .userId(UUID.randomUUID())
+                .teamId(UUID.randomUUID())
+                .build();
+    }
+
+    static List<UUID> uuids(int size) {
+        List<UUID> ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+}
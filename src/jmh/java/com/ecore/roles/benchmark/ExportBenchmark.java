@@ -0,0 +1,99 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.RolesApplication;
+import com.ecore.roles.repository.UuidBytes;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.web.rest.Gzip;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exports every membership of a file-backed H2 database as NDJSON into a discarding stream, the way
+ * the export endpoint buffers and compresses its response, with and without gzip. The database lives outside the heap
+ * and the heap is kept small, so a run that held rows in memory would fail instead of just getting
+ * slower.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"1000000"})
+    private int memberships;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    private ConfigurableApplicationContext context;
+    private MembershipsService membershipsService;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(RolesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:file:./target/export-benchmark/" + UUID.randomUUID(),
+                        "clients.users-api-host=http://localhost/users",
+                        "clients.teams-api-host=http://localhost/teams",
+                        "logging.level.root=warn")
+                .run();
+        membershipsService = context.getBean(MembershipsService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        byte[] roleId = UuidBytes.of(BenchmarkData.DEVELOPER_ROLE_UUID);
+        for (int from = 0; from < memberships; from += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = from; i < Math.min(from + BATCH, memberships); i++) {
+                rows.add(new Object[] {
+                        UuidBytes.of(UUID.randomUUID()),
+                        roleId,
+                        UuidBytes.of(UUID.randomUUID()),
+                        UuidBytes.of(UUID.randomUUID())});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into membership (id, role_id, user_id, team_id) values (?, ?, ?, ?)", rows);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public long export() throws IOException {
+        OutputStream discard = OutputStream.nullOutputStream();
+        OutputStream out = gzip ? Gzip.fastest(discard, BUFFER_SIZE) : discard;
+        try (OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE)) {
+            return membershipsService.exportMemberships(null, null, buffered);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.RolesApplication;
+import com.ecore.roles.model.MembershipImport;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.MembershipImportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Imports a CSV file of new memberships, in teams of 100, into an empty file-backed H2 database. The
+ * audit log is off so the benchmark measures the import rather than the audit writer.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx512m")
+@State(Scope.Benchmark)
+public class ImportBenchmark {
+
+    private static final int TEAM_SIZE = 100;
+
+    @Param({"200000"})
+    private int memberships;
+
+    @Param({"1000", "5000"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private MembershipImportService importService;
+    private MembershipRepository membershipRepository;
+    private byte[] csv;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(RolesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:file:./target/import-benchmark/" + UUID.randomUUID(),
+                        "clients.users-api-host=http://localhost/users",
+                        "clients.teams-api-host=http://localhost/teams",
+                        "jobs.membership-import.batch-size=" + batchSize,
+                        "audit.enabled=false",
+                        "logging.level.root=warn")
+                .run();
+        importService = context.getBean(MembershipImportService.class);
+        membershipRepository = context.getBean(MembershipRepository.class);
+        StringBuilder lines = new StringBuilder("userId,teamId,role\n");
+        UUID teamId = null;
+        for (int i = 0; i < memberships; i++) {
+            if (i % TEAM_SIZE == 0) {
+                teamId = UUID.randomUUID();
+            }
+            lines.append(UUID.randomUUID()).append(',').append(teamId).append(",Developer\n");
+        }
+        csv = lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Setup(Level.Iteration)
+    public void deleteMemberships() {
+        membershipRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public MembershipImport importCsv() {
+        return importService.importMemberships(UUID.randomUUID().toString(), MembershipImportService.Format.CSV,
+                new ByteArrayInputStream(csv));
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.RoleDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    private Membership membership;
+    private MembershipDto membershipDto;
+    private Role role;
+    private RoleDto roleDto;
+
+    @Setup
+    public void setUp() {
+        membership = BenchmarkData.membership();
+        membershipDto = MembershipDto.fromModel(membership);
+        role = BenchmarkData.developerRole();
+        roleDto = RoleDto.fromModel(role);
+    }
+
+    @Benchmark
+    public MembershipDto membershipFromModel() {
+        return MembershipDto.fromModel(membership);
+    }
+
+    @Benchmark
+    public Membership membershipToModel() {
+        return membershipDto.toModel();
+    }
+
+    @Benchmark
+    public RoleDto roleFromModel() {
+        return RoleDto.fromModel(role);
+    }
+
+    @Benchmark
+    public Role roleToModel() {
+        return roleDto.toModel();
+    }
+}
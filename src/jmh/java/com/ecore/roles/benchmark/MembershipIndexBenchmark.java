@@ -0,0 +1,82 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipKey;
+import com.ecore.roles.repository.MembershipIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership lookups against {@link MembershipIndex} and against a boxed {@code HashMap} keyed by
+ * {@link MembershipKey}, for probes that mostly miss the CPU caches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MembershipIndexBenchmark {
+
+    private static final int PROBES = 4096;
+
+    @Param({"100000", "1000000"})
+    private int memberships;
+
+    private MembershipIndex index;
+    private Map<MembershipKey, UUID> boxed;
+    private UUID[] probeUsers;
+    private UUID[] probeTeams;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        List<Membership> loaded = new ArrayList<>(memberships);
+        boxed = new HashMap<>();
+        for (int i = 0; i < memberships; i++) {
+            Membership membership = BenchmarkData.membership();
+            loaded.add(membership);
+            boxed.put(MembershipKey.of(membership), membership.getRole().getId());
+        }
+        index = new MembershipIndex(null, TransactionOperations.withoutTransaction(), null);
+        index.added(loaded);
+
+        probeUsers = new UUID[PROBES];
+        probeTeams = new UUID[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            // every other probe misses
+            Membership membership = i % 2 == 0 ? loaded.get((i * 7919) % memberships) : BenchmarkData.membership();
+            probeUsers[i] = membership.getUserId();
+            probeTeams[i] = membership.getTeamId();
+        }
+    }
+
+    @Benchmark
+    public boolean index() {
+        int i = next++ & (PROBES - 1);
+        return index.hasRole(probeUsers[i], probeTeams[i], BenchmarkData.DEVELOPER_ROLE_UUID);
+    }
+
+    @Benchmark
+    public boolean boxedMap() {
+        int i = next++ & (PROBES - 1);
+        return BenchmarkData.DEVELOPER_ROLE_UUID.equals(boxed.get(new MembershipKey(probeTeams[i], probeUsers[i])));
+    }
+}
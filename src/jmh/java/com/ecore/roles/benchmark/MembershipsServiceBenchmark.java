@@ -0,0 +1,106 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.RolesApplication;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.MembershipsService;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link MembershipsService#assignRoleToMembership} against an embedded H2 database. Teams are put straight
+ * into the teams cache so the benchmark never reaches the Teams API.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MembershipsServiceBenchmark {
+
+    @Param({"10", "1000"})
+    private int teamSize;
+
+    private ConfigurableApplicationContext context;
+    private MembershipsService membershipsService;
+    private MembershipRepository membershipRepository;
+    private LoadingCache<UUID, Team> teamsCache;
+
+    private List<UUID> memberIds;
+    private UUID teamId;
+    private int next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void startApplication() {
+        context = new SpringApplicationBuilder(RolesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:benchmark",
+                        "clients.users-api-host=http://localhost/users",
+                        "clients.teams-api-host=http://localhost/teams",
+                        "clients.teams-cache.refresh-after-write=1d",
+                        "clients.teams-cache.expire-after-write=1d",
+                        "logging.level.root=warn")
+                .run();
+        membershipsService = context.getBean(MembershipsService.class);
+        membershipRepository = context.getBean(MembershipRepository.class);
+        teamsCache = context.getBean("teamsCache", LoadingCache.class);
+        memberIds = BenchmarkData.uuids(teamSize);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetMemberships() {
+        membershipRepository.deleteAllInBatch();
+        next = 0;
+        nextTeam();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Membership assignRoleToMembership() {
+        if (next == memberIds.size()) {
+            nextTeam();
+        }
+        return membershipsService.assignRoleToMembership(Membership.builder()
+                .role(BenchmarkData.developerRole())
+                .userId(memberIds.get(next++))
+                .teamId(teamId)
+                .build());
+    }
+
+    private void nextTeam() {
+        teamId = UUID.randomUUID();
+        teamsCache.put(teamId, Team.builder()
+                .id(teamId)
+                .name("Benchmark Team")
+                .teamMemberIds(memberIds)
+                .build());
+        next = 0;
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.RolesApplication;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.model.ReconciliationReport;
+import com.ecore.roles.repository.UuidBytes;
+import com.ecore.roles.service.impl.MembershipReconciliationServiceImpl;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A dry-run reconciliation of memberships spread over teams of 100 against an embedded H2 database,
+ * with a tenth of every team no longer in it upstream. Teams are put straight into the teams cache so
+ * the benchmark measures the scan and the comparison, not the Teams API.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgs = "-Xmx1g")
+@State(Scope.Benchmark)
+public class ReconciliationBenchmark {
+
+    private static final int TEAM_SIZE = 100;
+    private static final int LEFT_PER_TEAM = 10;
+
+    @Param({"100000", "1000000"})
+    private int memberships;
+
+    private ConfigurableApplicationContext context;
+    private MembershipReconciliationServiceImpl reconciliationService;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void startApplication() {
+        context = new SpringApplicationBuilder(RolesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:reconciliation",
+                        "clients.users-api-host=http://localhost/users",
+                        "clients.teams-api-host=http://localhost/teams",
+                        "clients.teams-cache.maximum-size=" + memberships / TEAM_SIZE,
+                        "clients.teams-cache.refresh-after-write=1d",
+                        "clients.teams-cache.expire-after-write=1d",
+                        "logging.level.root=warn")
+                .run();
+        reconciliationService = context.getBean(MembershipReconciliationServiceImpl.class);
+        LoadingCache<UUID, Team> teamsCache = context.getBean("teamsCache", LoadingCache.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        byte[] roleId = UuidBytes.of(BenchmarkData.DEVELOPER_ROLE_UUID);
+        for (int team = 0; team < memberships / TEAM_SIZE; team++) {
+            UUID teamId = UUID.randomUUID();
+            List<UUID> members = BenchmarkData.uuids(TEAM_SIZE);
+            List<Object[]> rows = new ArrayList<>(TEAM_SIZE);
+            for (UUID userId : members) {
+                rows.add(new Object[] {UuidBytes.of(UUID.randomUUID()), roleId, UuidBytes.of(userId), UuidBytes.of(teamId)});
+            }
+            jdbcTemplate.batchUpdate(
+                    "insert into membership (id, role_id, user_id, team_id) values (?, ?, ?, ?)", rows);
+            teamsCache.put(teamId, Team.builder()
+                    .id(teamId)
+                    .teamMemberIds(members.subList(LEFT_PER_TEAM, TEAM_SIZE))
+                    .build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public ReconciliationReport dryRun() {
+        return reconciliationService.reconcile(true);
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecore.roles.benchmark;
+
+import com.ecore.roles.web.dto.MembershipDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private List<MembershipDto> memberships;
+
+    @Setup
+    public void setUp() {
+        memberships = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            memberships.add(MembershipDto.fromModel(BenchmarkData.membership()));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeMemberships() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(memberships);
+    }
+}
@@ -0,0 +1,78 @@
+package com.ecore.roles.loadtest;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop driver: every worker sends its next request as soon as the previous one completes, picking the
+ * operation at random according to the {@link Operation} weights.
+ */
+@Log4j2
+public class LoadDriver {
+
+    private final LoadTestSettings settings;
+    private final Upstreams upstreams;
+    private final String baseUrl;
+    private final HttpClient httpClient;
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    public LoadDriver(LoadTestSettings settings, Upstreams upstreams, String baseUrl) {
+        this.settings = settings;
+        this.upstreams = upstreams;
+        this.baseUrl = baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    public LoadTestReport run() throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.getConcurrency());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.getWarmup().toNanos();
+        long end = measureFrom + settings.getDuration().toNanos();
+        for (int i = 0; i < settings.getConcurrency(); i++) {
+            workers.execute(() -> drive(end));
+        }
+
+        log.info("Warming up for {}", settings.getWarmup());
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, measureFrom - System.nanoTime()));
+        stats.values().forEach(OperationStats::reset);
+        long measuredStart = System.nanoTime();
+        log.info("Measuring for {} with {} workers", settings.getDuration(), settings.getConcurrency());
+
+        workers.shutdown();
+        workers.awaitTermination(settings.getDuration().toMillis() + 60_000, TimeUnit.MILLISECONDS);
+        return new LoadTestReport(settings, stats, Duration.ofNanos(System.nanoTime() - measuredStart));
+    }
+
+    private void drive(long end) {
+        while (System.nanoTime() < end) {
+            Operation operation = Operation.pick();
+            OperationStats operationStats = stats.get(operation);
+            long started = System.nanoTime();
+            try {
+                HttpResponse<Void> response = httpClient.send(
+                        operation.request(baseUrl, upstreams),
+                        HttpResponse.BodyHandlers.discarding());
+                operationStats.record(System.nanoTime() - started, response.statusCode());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                operationStats.recordFailure(System.nanoTime() - started);
+            }
+        }
+    }
+}
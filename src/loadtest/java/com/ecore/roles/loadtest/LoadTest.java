@@ -0,0 +1,52 @@
+package com.ecore.roles.loadtest;
+
+import com.ecore.roles.RolesApplication;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the Roles API against local Users/Teams stubs, drives a mixed workload and prints throughput and latency
+ * percentiles. Run with {@code mvn -Ploadtest -DskipTests verify}; see {@link LoadTestSettings} for the knobs.
+ */
+@Log4j2
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = new LoadTestSettings();
+        Upstreams upstreams = new Upstreams(settings);
+
+        try (StubUpstream users = new StubUpstream("users", upstreams.getUsers(), settings);
+                StubUpstream teams = new StubUpstream("teams", upstreams.getTeams(), settings);
+                ServletWebServerApplicationContext application =
+                        (ServletWebServerApplicationContext) new SpringApplicationBuilder(RolesApplication.class)
+                                .run(applicationArgs(users, teams, args))) {
+            String baseUrl = "http://localhost:" + application.getWebServer().getPort();
+            log.info("Roles API listening on {}", baseUrl);
+
+            LoadTestReport report = new LoadDriver(settings, upstreams, baseUrl).run();
+            report.print(System.out);
+            report.write(Path.of(settings.getReport()));
+        }
+    }
+
+    /**
+     * Passed as command line arguments so they win over any other configuration. The test-scope
+     * {@code application.yml} shadows the main one on the classpath, so the main one is loaded explicitly.
+     */
+    private static String[] applicationArgs(StubUpstream users, StubUpstream teams, String[] args) {
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--spring.config.location=file:target/classes/application.yml",
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                "--clients.users-api-host=" + users.getUrl(),
+                "--clients.teams-api-host=" + teams.getUrl(),
+                "--logging.level.root=warn"));
+        applicationArgs.addAll(List.of(args));
+        return applicationArgs.toArray(String[]::new);
+    }
+}
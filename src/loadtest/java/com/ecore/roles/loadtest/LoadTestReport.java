@@ -0,0 +1,85 @@
+package com.ecore.roles.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles per operation and for the whole mix.
+ */
+public class LoadTestReport {
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Map<String, Object> settings = new LinkedHashMap<>();
+    private final Map<String, Map<String, Object>> operations = new LinkedHashMap<>();
+
+    LoadTestReport(LoadTestSettings loadTestSettings, Map<Operation, OperationStats> stats, Duration elapsed) {
+        settings.put("durationSeconds", elapsed.toMillis() / 1000.0);
+        settings.put("concurrency", loadTestSettings.getConcurrency());
+        settings.put("upstreamLatencyMs", loadTestSettings.getUpstreamLatencyMillis());
+        settings.put("upstreamJitterMs", loadTestSettings.getUpstreamJitterMillis());
+        settings.put("upstreamErrorRate", loadTestSettings.getUpstreamErrorRate());
+
+        Histogram total = new Histogram(3);
+        long success = 0;
+        long clientErrors = 0;
+        long serverErrors = 0;
+        long failures = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            Histogram histogram = operationStats.histogram();
+            total.add(histogram);
+            success += operationStats.getSuccess();
+            clientErrors += operationStats.getClientErrors();
+            serverErrors += operationStats.getServerErrors();
+            failures += operationStats.getFailures();
+            operations.put(entry.getKey().name(), summary(histogram, elapsed, operationStats.getSuccess(),
+                    operationStats.getClientErrors(), operationStats.getServerErrors(), operationStats.getFailures()));
+        }
+        operations.put("TOTAL", summary(total, elapsed, success, clientErrors, serverErrors, failures));
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-20s %10s %10s %10s %10s %10s %8s %8s %8s%n",
+                "operation", "count", "req/s", "p50 ms", "p99 ms", "p999 ms", "4xx", "5xx", "failed");
+        for (Map.Entry<String, Map<String, Object>> entry : operations.entrySet()) {
+            Map<String, Object> s = entry.getValue();
+            out.printf("%-20s %10d %10.1f %10.2f %10.2f %10.2f %8d %8d %8d%n",
+                    entry.getKey(), s.get("count"), s.get("throughput"), s.get("p50Ms"), s.get("p99Ms"),
+                    s.get("p999Ms"), s.get("clientErrors"), s.get("serverErrors"), s.get("failures"));
+        }
+    }
+
+    public void write(Path path) throws IOException {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("settings", settings);
+        report.put("operations", operations);
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+    }
+
+    private static Map<String, Object> summary(Histogram histogram, Duration elapsed,
+            long success, long clientErrors, long serverErrors, long failures) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("throughput", histogram.getTotalCount() / Math.max(elapsed.toMillis() / 1000.0, 0.001));
+        summary.put("p50Ms", histogram.getValueAtPercentile(50) / NANOS_PER_MILLI);
+        summary.put("p99Ms", histogram.getValueAtPercentile(99) / NANOS_PER_MILLI);
+        summary.put("p999Ms", histogram.getValueAtPercentile(99.9) / NANOS_PER_MILLI);
+        summary.put("maxMs", histogram.getMaxValue() / NANOS_PER_MILLI);
+        summary.put("success", success);
+        summary.put("clientErrors", clientErrors);
+        summary.put("serverErrors", serverErrors);
+        summary.put("failures", failures);
+        return summary;
+    }
+}
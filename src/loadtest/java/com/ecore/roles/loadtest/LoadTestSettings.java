@@ -0,0 +1,24 @@
+package com.ecore.roles.loadtest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Load test knobs, read from {@code loadtest.*} system properties so they can be passed straight to Maven.
+ */
+@Getter
+public class LoadTestSettings {
+
+    private final Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration-seconds", 30));
+    private final Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmup-seconds", 5));
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 32);
+    private final int users = Integer.getInteger("loadtest.users", 5_000);
+    private final int teams = Integer.getInteger("loadtest.teams", 500);
+    private final int teamSize = Integer.getInteger("loadtest.team-size", 10);
+    private final long upstreamLatencyMillis = Long.getLong("loadtest.upstream-latency-ms", 20);
+    private final long upstreamJitterMillis = Long.getLong("loadtest.upstream-jitter-ms", 10);
+    private final double upstreamErrorRate =
+            Double.parseDouble(System.getProperty("loadtest.upstream-error-rate", "0.0"));
+    private final String report = System.getProperty("loadtest.report", "target/loadtest-report.json");
+}
@@ -0,0 +1,139 @@
+package com.ecore.roles.loadtest;
+
+import com.ecore.roles.client.model.Team;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * The request mix driven against the Roles API, each entry with its relative weight.
+ */
+public enum Operation {
+
+    GET_ROLES(10) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            return post(baseUrl + "/v1/roles");
+        }
+    },
+    GET_ROLE(10) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            return post(baseUrl + "/v1/roles/" + randomRole());
+        }
+    },
+    ASSIGN_MEMBERSHIP(15) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            long n = ASSIGNMENTS.getAndIncrement();
+            List<Team> teams = upstreams.getTeamList();
+            // walks every (team, member) pair once before repeating, so early assignments never collide
+            Team team = teams.get((int) (n % teams.size()));
+            List<UUID> members = team.getTeamMemberIds();
+            UUID member = members.get((int) ((n / teams.size()) % members.size()));
+            String body = String.format("{\"roleId\":\"%s\",\"teamMemberId\":\"%s\",\"teamId\":\"%s\"}",
+                    randomRole(), member, team.getId());
+            return postJson(baseUrl + "/v1/roles/memberships", body);
+        }
+    },
+    SEARCH_MEMBERSHIPS(15) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            return post(baseUrl + "/v1/roles/memberships/search?roleId=" + randomRole());
+        }
+    },
+    GET_USER(20) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            List<UUID> ids = upstreams.getUserIds();
+            return post(baseUrl + "/v1/users/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+        }
+    },
+    GET_TEAM(20) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            List<Team> teams = upstreams.getTeamList();
+            return post(baseUrl + "/v1/teams/" + teams.get(ThreadLocalRandom.current().nextInt(teams.size())).getId());
+        }
+    },
+    GET_TEAM_MEMBERS(10) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            List<Team> teams = upstreams.getTeamList();
+            Team team = teams.get(ThreadLocalRandom.current().nextInt(teams.size()));
+            return postJson(baseUrl + "/v1/users/batch", team.getTeamMemberIds().stream()
+                    .map(id -> "\"" + id + "\"")
+                    .collect(Collectors.joining(",", "[", "]")));
+        }
+    },
+    GET_USERS(5) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            return post(baseUrl + "/v1/users");
+        }
+    },
+    GET_TEAMS(5) {
+        @Override
+        HttpRequest request(String baseUrl, Upstreams upstreams) {
+            return post(baseUrl + "/v1/teams");
+        }
+    };
+
+    // the roles seeded by the V1 migration
+    private static final UUID[] ROLES = {
+            UUID.fromString("1b3c333b-36e7-4b64-aa15-c22ed5908ce4"),
+            UUID.fromString("25bbb7d2-26f3-11ec-9621-0242ac130002"),
+            UUID.fromString("37969e22-26f3-11ec-9621-0242ac130002")};
+
+    private static final AtomicLong ASSIGNMENTS = new AtomicLong();
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (Operation operation : values()) {
+            total += operation.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private final int weight;
+
+    Operation(int weight) {
+        this.weight = weight;
+    }
+
+    abstract HttpRequest request(String baseUrl, Upstreams upstreams);
+
+    static Operation pick() {
+        int ticket = ThreadLocalRandom.current().nextInt(TOTAL_WEIGHT);
+        for (Operation operation : values()) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights are inconsistent");
+    }
+
+    private static UUID randomRole() {
+        return ROLES[ThreadLocalRandom.current().nextInt(ROLES.length)];
+    }
+
+    private static HttpRequest postJson(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest post(String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+}
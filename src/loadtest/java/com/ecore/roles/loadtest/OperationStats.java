@@ -0,0 +1,65 @@
+package com.ecore.roles.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram and response status counters for one {@link Operation}.
+ */
+public class OperationStats {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+    private final LongAdder success = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        if (status >= 500) {
+            serverErrors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+        } else {
+            success.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        recorder.recordValue(Math.min(latencyNanos, HIGHEST_TRACKABLE_NANOS));
+        failures.increment();
+    }
+
+    void reset() {
+        recorder.reset();
+        success.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+        failures.reset();
+    }
+
+    Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+
+    long getSuccess() {
+        return success.sum();
+    }
+
+    long getClientErrors() {
+        return clientErrors.sum();
+    }
+
+    long getServerErrors() {
+        return serverErrors.sum();
+    }
+
+    long getFailures() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,95 @@
+package com.ecore.roles.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Minimal stand-in for the Users or Teams API. Serves {@code /<path>} and {@code /<path>/{id}} from a fixed data
+ * set, delaying every response by the configured latency and failing a share of them with a 500.
+ */
+public class StubUpstream implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final String path;
+    private final byte[] all;
+    private final Map<UUID, byte[]> byId;
+    private final long latencyMillis;
+    private final long jitterMillis;
+    private final double errorRate;
+
+    public StubUpstream(String path, Map<UUID, ?> entities, LoadTestSettings settings) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        this.path = "/" + path;
+        this.all = objectMapper.writeValueAsBytes(entities.values());
+        this.byId = new HashMap<>();
+        for (Map.Entry<UUID, ?> entity : entities.entrySet()) {
+            byId.put(entity.getKey(), objectMapper.writeValueAsBytes(entity.getValue()));
+        }
+        this.latencyMillis = settings.getUpstreamLatencyMillis();
+        this.jitterMillis = settings.getUpstreamJitterMillis();
+        this.errorRate = settings.getUpstreamErrorRate();
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        this.server.createContext(this.path, this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+            if (delay > 0) {
+                Thread.sleep(delay);
+            }
+            if (random.nextDouble() < errorRate) {
+                exchange.sendResponseHeaders(500, -1);
+                return;
+            }
+            String requested = exchange.getRequestURI().getPath().substring(path.length());
+            byte[] body = requested.isEmpty() || requested.equals("/")
+                    ? all
+                    : byId.get(parseId(requested.substring(1)));
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static UUID parseId(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,52 @@
+package com.ecore.roles.loadtest;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Synthetic users and teams served by the stubs; team members are drawn from the generated users.
+ */
+@Getter
+public class Upstreams {
+
+    private final Map<UUID, User> users = new LinkedHashMap<>();
+    private final Map<UUID, Team> teams = new LinkedHashMap<>();
+    private final List<UUID> userIds = new ArrayList<>();
+    private final List<Team> teamList = new ArrayList<>();
+
+    public Upstreams(LoadTestSettings settings) {
+        for (int i = 0; i < settings.getUsers(); i++) {
+            UUID id = UUID.randomUUID();
+            users.put(id, User.builder()
+                    .id(id)
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .displayName("user" + i)
+                    .location("Load Test")
+                    .build());
+            userIds.add(id);
+        }
+        for (int i = 0; i < settings.getTeams(); i++) {
+            List<UUID> members = new ArrayList<>(settings.getTeamSize());
+            for (int m = 0; m < settings.getTeamSize(); m++) {
+                members.add(userIds.get((i * settings.getTeamSize() + m) % userIds.size()));
+            }
+            UUID id = UUID.randomUUID();
+            Team team = Team.builder()
+                    .id(id)
+                    .name("Team " + i)
+                    .teamLeadId(members.get(0))
+                    .teamMemberIds(members)
+                    .build();
+            teams.put(id, team);
+            teamList.add(team);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecore.roles.client;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Optional local copy of the Users and Teams datasets. When {@code clients.mirror.enabled} is set,
+ * both datasets are pulled in full every {@code clients.mirror.refresh-interval}, diffed against
+ * the current copy and published as a new {@link MirrorSnapshot}; reads then never reach the
+ * upstream. A failed pull, or one without a body, keeps the previous snapshot.
+ */
+@Log4j2
+@Component
+public class ClientsMirror {
+
+    private final boolean enabled;
+    private final Dataset<User> users;
+    private final Dataset<Team> teams;
+
+    @Autowired
+    public ClientsMirror(
+            UsersClient usersClient,
+            TeamsClient teamsClient,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this(usersClient, teamsClient, clientsConfigurationProperties, meterRegistry, Clock.systemUTC());
+    }
+
+    ClientsMirror(
+            UsersClient usersClient,
+            TeamsClient teamsClient,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry,
+            Clock clock) {
+        this.enabled = clientsConfigurationProperties.getMirror().isEnabled();
+        this.users = new Dataset<>("users", () -> usersClient.getUsers().getBody(), User::getId,
+                meterRegistry, clock);
+        this.teams = new Dataset<>("teams", () -> teamsClient.getTeams().getBody(), Team::getId,
+                meterRegistry, clock);
+    }
+
+    /**
+     * Empty unless mirroring is enabled and the first sync has completed.
+     */
+    public Optional<MirrorSnapshot<User>> users() {
+        return Optional.ofNullable(users.snapshot);
+    }
+
+    public Optional<MirrorSnapshot<Team>> teams() {
+        return Optional.ofNullable(teams.snapshot);
+    }
+
+    @Scheduled(
+            initialDelay = 0,
+            fixedDelayString = "#{@clientsConfigurationProperties.mirror.refreshInterval.toMillis()}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        users.sync();
+        teams.sync();
+    }
+
+    private static final class Dataset<T> {
+
+        private final String name;
+        private final Supplier<List<T>> fetch;
+        private final Function<T, UUID> id;
+        private final Clock clock;
+        private final Counter added;
+        private final Counter updated;
+        private final Counter removed;
+        private final Counter failures;
+
+        private volatile MirrorSnapshot<T> snapshot;
+
+        Dataset(
+                String name,
+                Supplier<List<T>> fetch,
+                Function<T, UUID> id,
+                MeterRegistry meterRegistry,
+                Clock clock) {
+            this.name = name;
+            this.fetch = fetch;
+            this.id = id;
+            this.clock = clock;
+            this.added = changes(meterRegistry, name, "added");
+            this.updated = changes(meterRegistry, name, "updated");
+            this.removed = changes(meterRegistry, name, "removed");
+            this.failures = Counter.builder("clients.mirror.sync.failures")
+                    .tag("dataset", name)
+                    .register(meterRegistry);
+            Gauge.builder("clients.mirror.age", this, Dataset::ageSeconds)
+                    .tag("dataset", name)
+                    .description("Time since the last successful sync")
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("clients.mirror.size", this, dataset -> dataset.snapshot == null
+                    ? Double.NaN
+                    : dataset.snapshot.size())
+                    .tag("dataset", name)
+                    .register(meterRegistry);
+        }
+
+        private static Counter changes(MeterRegistry meterRegistry, String name, String change) {
+            return Counter.builder("clients.mirror.changes")
+                    .tag("dataset", name)
+                    .tag("change", change)
+                    .register(meterRegistry);
+        }
+
+        void sync() {
+            List<T> fetched;
+            try {
+                // a missing body is not an empty dataset, mirroring it would drop every entry
+                fetched = Objects.requireNonNull(fetch.get(), "Upstream returned no body");
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Failed to sync {} mirror, keeping snapshot from {}", name,
+                        snapshot == null ? null : snapshot.getSyncedAt(), e);
+                return;
+            }
+            snapshot = merge(snapshot, fetched);
+        }
+
+        /**
+         * Unchanged entries keep the instance of the previous snapshot, so a sync without changes allocates
+         * only the new index.
+         */
+        private MirrorSnapshot<T> merge(MirrorSnapshot<T> previous, List<T> fetched) {
+            Map<UUID, T> current = previous == null ? Map.of() : previous.asMap();
+            Map<UUID, T> next = new LinkedHashMap<>(fetched.size() * 4 / 3 + 1);
+            int addedCount = 0;
+            int updatedCount = 0;
+            for (T entity : fetched) {
+                UUID key = id.apply(entity);
+                T existing = current.get(key);
+                if (existing == null) {
+                    addedCount++;
+                    next.put(key, entity);
+                } else if (!Objects.equals(existing, entity)) {
+                    updatedCount++;
+                    next.put(key, entity);
+                } else {
+                    next.put(key, existing);
+                }
+            }
+            int removedCount = (int) current.keySet().stream().filter(key -> !next.containsKey(key)).count();
+            added.increment(addedCount);
+            updated.increment(updatedCount);
+            removed.increment(removedCount);
+            log.debug("Synced {} mirror: {} added, {} updated, {} removed", name, addedCount, updatedCount,
+                    removedCount);
+            return new MirrorSnapshot<>(next, clock.instant());
+        }
+
+        private double ageSeconds() {
+            MirrorSnapshot<T> current = snapshot;
+            if (current == null) {
+                return Double.NaN;
+            }
+            return Duration.between(current.getSyncedAt(), clock.instant()).toMillis() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.ecore.roles.client;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Immutable copy of a full upstream dataset, indexed by id.
+ */
+public class MirrorSnapshot<T> {
+
+    private final Map<UUID, T> byId;
+    private final Instant syncedAt;
+
+    MirrorSnapshot(Map<UUID, T> byId, Instant syncedAt) {
+        this.byId = Collections.unmodifiableMap(byId);
+        this.syncedAt = syncedAt;
+    }
+
+    public T get(UUID id) {
+        return byId.get(id);
+    }
+
+    public List<T> getAll() {
+        return List.copyOf(byId.values());
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    public Instant getSyncedAt() {
+        return syncedAt;
+    }
+
+    Map<UUID, T> asMap() {
+        return byId;
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecore.roles.client;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@Component
+@CircuitBreaker(name = "teams")
+@Bulkhead(name = "teams")
+public class ReactiveTeamsClient {
+
+    private final WebClient clientsWebClient;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+
+    public Mono<Team> getTeam(UUID id) {
+        return clientsWebClient.get()
+                .uri(clientsConfigurationProperties.getTeamsApiHost() + "/{id}", id)
+                .retrieve()
+                .bodyToMono(Team.class);
+    }
+
+    public Flux<Team> getTeams() {
+        return clientsWebClient.get()
+                .uri(clientsConfigurationProperties.getTeamsApiHost())
+                .retrieve()
+                .bodyToFlux(Team.class);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecore.roles.client;
+
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+@RequiredArgsConstructor
+@Component
+@CircuitBreaker(name = "users")
+@Bulkhead(name = "users")
+public class ReactiveUsersClient {
+
+    private final WebClient clientsWebClient;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+
+    public Mono<User> getUser(UUID id) {
+        return clientsWebClient.get()
+                .uri(clientsConfigurationProperties.getUsersApiHost() + "/{id}", id)
+                .retrieve()
+                .bodyToMono(User.class);
+    }
+
+    public Flux<User> getUsers() {
+        return clientsWebClient.get()
+                .uri(clientsConfigurationProperties.getUsersApiHost())
+                .retrieve()
+                .bodyToFlux(User.class);
+    }
+}
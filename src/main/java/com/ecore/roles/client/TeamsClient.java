@@ -2,6 +2,8 @@ package com.ecore.roles.client;
 
 import com.ecore.roles.client.model.Team;
 import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
@@ -14,6 +16,8 @@ import java.util.UUID;
 
 @RequiredArgsConstructor
 @Component
+@CircuitBreaker(name = "teams")
+@Bulkhead(name = "teams")
 public class TeamsClient {
 
     private final RestTemplate restTemplate;
@@ -21,10 +25,11 @@ public class TeamsClient {
 
     public ResponseEntity<Team> getTeam(UUID id) {
         return restTemplate.exchange(
-                clientsConfigurationProperties.getTeamsApiHost() + "/" + id,
+                clientsConfigurationProperties.getTeamsApiHost() + "/{id}",
                 HttpMethod.GET,
                 null,
-                Team.class);
+                Team.class,
+                id);
     }
 
     public ResponseEntity<List<Team>> getTeams() {
@@ -2,6 +2,8 @@ package com.ecore.roles.client;
 
 import com.ecore.roles.client.model.User;
 import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpMethod;
@@ -14,6 +16,8 @@ import java.util.UUID;
 
 @RequiredArgsConstructor
 @Component
+@CircuitBreaker(name = "users")
+@Bulkhead(name = "users")
 public class UsersClient {
 
     private final RestTemplate restTemplate;
@@ -21,10 +25,11 @@ public class UsersClient {
 
     public ResponseEntity<User> getUser(UUID id) {
         return restTemplate.exchange(
-                clientsConfigurationProperties.getUsersApiHost() + "/" + id,
+                clientsConfigurationProperties.getUsersApiHost() + "/{id}",
                 HttpMethod.GET,
                 null,
-                User.class);
+                User.class,
+                id);
     }
 
     public ResponseEntity<List<User>> getUsers() {
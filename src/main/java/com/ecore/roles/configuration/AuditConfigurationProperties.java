@@ -0,0 +1,50 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "audit")
+public class AuditConfigurationProperties {
+
+    public enum Durability {
+        /**
+         * Never delay the write being audited; events that do not fit in the queue are dropped and counted.
+         */
+        DROP_WHEN_FULL,
+        /**
+         * Wait up to {@link #offerTimeout} for room in the queue before dropping.
+         */
+        BLOCK_WHEN_FULL,
+        /**
+         * Hold the audited call for up to {@link #offerTimeout} until the event has been written, which
+         * paces writers to the audit writer. This is not a durability guarantee: the change has already
+         * committed, so a timeout or a failed insert is only logged and counted and the call still
+         * succeeds. Concurrent writers share the batches, so this costs one batched insert per round. The
+         * held call keeps its database connection, so the audit writer has a pool of its own.
+         */
+        WAIT_FOR_WRITE
+    }
+
+    private boolean enabled = true;
+
+    private Durability durability = Durability.DROP_WHEN_FULL;
+
+    private int queueCapacity = 10_000;
+
+    /**
+     * Most events written per insert. The writer takes whatever is queued up to this size, so batches
+     * grow with the write rate.
+     */
+    private int batchSize = 500;
+
+    private Duration offerTimeout = Duration.ofSeconds(1);
+}
@@ -0,0 +1,81 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.UsersClient;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import static com.ecore.roles.configuration.ThreadingConfiguration.VIRTUAL_THREAD_EXECUTOR;
+
+@Configuration
+public class ClientsCacheConfiguration {
+
+    @Bean
+    public LoadingCache<UUID, User> usersCache(
+            UsersClient usersClient,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry,
+            @Qualifier(VIRTUAL_THREAD_EXECUTOR) ObjectProvider<ExecutorService> virtualThreadExecutor) {
+        return CaffeineCacheMetrics.monitor(meterRegistry,
+                buildCache(clientsConfigurationProperties.getUsersCache(),
+                        id -> bodyOrNull(() -> usersClient.getUser(id)),
+                        virtualThreadExecutor.getIfAvailable()),
+                "users");
+    }
+
+    @Bean
+    public LoadingCache<UUID, Team> teamsCache(
+            TeamsClient teamsClient,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry,
+            @Qualifier(VIRTUAL_THREAD_EXECUTOR) ObjectProvider<ExecutorService> virtualThreadExecutor) {
+        return CaffeineCacheMetrics.monitor(meterRegistry,
+                buildCache(clientsConfigurationProperties.getTeamsCache(),
+                        id -> bodyOrNull(() -> teamsClient.getTeam(id)),
+                        virtualThreadExecutor.getIfAvailable()),
+                "teams");
+    }
+
+    // Caffeine does not cache null values, so unknown ids are looked up again on the next call
+    private static <V> V bodyOrNull(Supplier<ResponseEntity<V>> request) {
+        try {
+            return request.get().getBody();
+        } catch (HttpClientErrorException.NotFound e) {
+            return null;
+        }
+    }
+
+    private static <V> LoadingCache<UUID, V> buildCache(
+            ClientsConfigurationProperties.Cache properties,
+            CacheLoader<UUID, V> loader,
+            Executor virtualThreadExecutor) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .refreshAfterWrite(properties.getRefreshAfterWrite())
+                .recordStats();
+        if (virtualThreadExecutor == null) {
+            return builder.build(loader);
+        }
+        // A synchronous cache calls the loader inside ConcurrentHashMap.compute, which pins the virtual
+        // thread to its carrier for the whole upstream call. The async cache only installs a future there
+        // and the caller waits for it outside the lock.
+        return builder.executor(virtualThreadExecutor).buildAsync(loader).synchronous();
+    }
+}
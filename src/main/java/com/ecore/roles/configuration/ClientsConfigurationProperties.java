@@ -6,6 +6,8 @@ import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @NoArgsConstructor
 @Getter
 @Setter
@@ -17,4 +19,74 @@ public class ClientsConfigurationProperties {
 
     private String teamsApiHost;
 
+    private Cache usersCache = new Cache();
+
+    private Cache teamsCache = new Cache();
+
+    private Http http = new Http();
+
+    /**
+     * Upstream requests in flight per batch lookup. Keep it below the bulkhead limit of the upstream.
+     */
+    private int batchParallelism = 8;
+
+    private Mirror mirror = new Mirror();
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Cache {
+
+        private long maximumSize = 10_000;
+
+        /**
+         * Upper bound on how long an entry is kept. A failed refresh keeps the previous value, so this is
+         * also how long stale data is served while the upstream is unavailable or its circuit breaker is
+         * open.
+         */
+        private Duration expireAfterWrite = Duration.ofHours(1);
+
+        /**
+         * Entries read after this period are reloaded in the background while the current value is still
+         * served. Must be shorter than {@link #expireAfterWrite} to have any effect.
+         */
+        private Duration refreshAfterWrite = Duration.ofMinutes(5);
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Http {
+
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        private Duration readTimeout = Duration.ofSeconds(5);
+
+        /**
+         * How long a caller waits for a pooled connection before failing.
+         */
+        private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+
+        private int maxConnections = 200;
+
+        private int maxConnectionsPerRoute = 50;
+
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Mirror {
+
+        /**
+         * Serve users and teams from a periodically synced local copy instead of calling the upstreams.
+         */
+        private boolean enabled = false;
+
+        private Duration refreshInterval = Duration.ofMinutes(1);
+    }
+
 }
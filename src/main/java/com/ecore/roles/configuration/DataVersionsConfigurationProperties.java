@@ -0,0 +1,23 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "data-versions")
+public class DataVersionsConfigurationProperties {
+
+    /**
+     * How often the versions published by other instances are read. ETags can miss another instance's
+     * write by this much.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(1);
+}
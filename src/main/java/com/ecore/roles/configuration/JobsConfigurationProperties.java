@@ -0,0 +1,95 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "jobs")
+public class JobsConfigurationProperties {
+
+    private Backfill defaultRoleBackfill = new Backfill();
+
+    private Reconciliation membershipReconciliation = new Reconciliation();
+
+    private Import membershipImport = new Import();
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Backfill {
+
+        /**
+         * Teams handled per transaction and checkpoint.
+         */
+        private int chunkSize = 100;
+
+        /**
+         * Pause after every chunk, which bounds the share of database time the job takes from online
+         * traffic.
+         */
+        private Duration delayBetweenChunks = Duration.ofMillis(200);
+
+        /**
+         * Attempts per chunk when it collides with memberships created concurrently.
+         */
+        private int maxAttempts = 3;
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Reconciliation {
+
+        /**
+         * Teams checked concurrently. The scan and every worker each hold a connection of the primary pool,
+         * and together they may take at most half of {@code spring.datasource.hikari.maximum-pool-size}, so
+         * this is at most half the pool size minus one, 4 for the default pool of 10. Checked at startup.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Teams read from the database but not yet checked. The scan waits once this many are queued, which
+         * bounds memory to this many teams' memberships.
+         */
+        private int maxQueuedTeams = 64;
+
+        /**
+         * Memberships deleted per statement.
+         */
+        private int deleteBatchSize = 500;
+
+        /**
+         * Orphans listed in the report; all of them are counted.
+         */
+        private int maxReportedOrphans = 1000;
+    }
+
+    @NoArgsConstructor
+    @Getter
+    @Setter
+    public static class Import {
+
+        /**
+         * Rows checked, inserted and checkpointed per transaction.
+         */
+        private int batchSize = 1000;
+
+        /**
+         * Attempts per batch when it collides with memberships created concurrently.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Invalid lines listed in the report; all of them are counted.
+         */
+        private int maxReportedErrors = 100;
+    }
+}
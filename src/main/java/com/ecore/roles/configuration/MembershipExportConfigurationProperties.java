@@ -0,0 +1,23 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "membership-export")
+public class MembershipExportConfigurationProperties {
+
+    /**
+     * How long an export may stream before the response is cut off. Applies to the export only; other
+     * asynchronous responses keep {@code spring.mvc.async.request-timeout}.
+     */
+    private Duration timeout = Duration.ofHours(1);
+}
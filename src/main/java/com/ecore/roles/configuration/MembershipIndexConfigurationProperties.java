@@ -0,0 +1,23 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "membership-index")
+public class MembershipIndexConfigurationProperties {
+
+    /**
+     * How often the index checks for membership changes made by other instances and reloads. Answers
+     * can be stale by this much.
+     */
+    private Duration refreshInterval = Duration.ofSeconds(30);
+}
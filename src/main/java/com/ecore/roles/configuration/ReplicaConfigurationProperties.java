@@ -0,0 +1,35 @@
+package com.ecore.roles.configuration;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Read replica settings. The replica's connection and pool are configured like
+ * {@code spring.datasource}, under {@code replica.datasource} and
+ * {@code replica.datasource.hikari}.
+ */
+@NoArgsConstructor
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "replica")
+public class ReplicaConfigurationProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Reads go back to the primary while the replica is further behind than this.
+     */
+    private Duration maxLag = Duration.ofSeconds(5);
+
+    /**
+     * How often the heartbeat is written to the primary and read back from both databases. Lag is only
+     * noticed this often, so keep it well below {@link #maxLag}.
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+}
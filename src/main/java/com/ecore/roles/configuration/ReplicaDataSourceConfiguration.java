@@ -0,0 +1,97 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.repository.ReplicaRoutingDataSource;
+import com.ecore.roles.repository.ReplicationLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Splits reads from writes when {@code replica.enabled} is set: read-only transactions run on the
+ * {@code replica.datasource} pool while it keeps up with the primary, everything else, including
+ * Flyway, runs on the {@code spring.datasource} pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(name = PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource =
+                dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("replica.datasource")
+    public DataSourceProperties replicaDataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean(name = REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("replica.datasource.hikari")
+    public HikariDataSource replicaDataSource(
+            @Qualifier("replicaDataSourceProperties") DataSourceProperties replicaDataSourceProperties) {
+        HikariDataSource dataSource =
+                replicaDataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                        .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicationLagMonitor replicationLagMonitor(
+            @Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource,
+            ReplicaConfigurationProperties properties,
+            MeterRegistry meterRegistry) {
+        return new ReplicationLagMonitor(primaryDataSource, replicaDataSource, properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource,
+            ReplicationLagMonitor replicationLagMonitor,
+            MeterRegistry meterRegistry) {
+        return new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, replicationLagMonitor, meterRegistry));
+    }
+
+    /**
+     * Hibernate would otherwise keep a session's connection until the session closes, and with
+     * open-in-view a request's read-write transactions would reuse the replica connection of an earlier
+     * read-only one.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+}
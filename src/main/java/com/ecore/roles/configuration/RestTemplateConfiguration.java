@@ -1,14 +1,57 @@
 package com.ecore.roles.configuration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 public class RestTemplateConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager clientsConnectionManager(
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        ClientsConfigurationProperties.Http http = clientsConfigurationProperties.getHttp();
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(http.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(http.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity((int) http.getValidateAfterInactivity().toMillis());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "clients")
+                .bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient clientsHttpClient(
+            PoolingHttpClientConnectionManager clientsConnectionManager,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        ClientsConfigurationProperties.Http http = clientsConfigurationProperties.getHttp();
+        return HttpClients.custom()
+                .setConnectionManager(clientsConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) http.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) http.getReadTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) http.getConnectionRequestTimeout().toMillis())
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(http.getIdleTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient clientsHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(clientsHttpClient))
+                .build();
     }
 }
@@ -0,0 +1,52 @@
+package com.ecore.roles.configuration;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Switches blocking work to virtual threads when {@code spring.threads.virtual.enabled} is set (the
+ * property Spring Boot 3.2 uses for the same purpose). Tomcat then runs every request on its own
+ * virtual thread, and blocking calls offloaded from reactive pipelines or cache refreshes run on
+ * virtual threads instead of bounded pools.
+ */
+@Log4j2
+@Configuration
+public class ThreadingConfiguration {
+
+    public static final String VIRTUAL_THREAD_EXECUTOR = "virtualThreadExecutor";
+
+    @Bean(name = VIRTUAL_THREAD_EXECUTOR, destroyMethod = "shutdown")
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public ExecutorService virtualThreadExecutor() {
+        log.info("Running blocking work on virtual threads");
+        return VirtualThreads.newExecutor("virtual-");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer(
+            @Qualifier(VIRTUAL_THREAD_EXECUTOR) ExecutorService virtualThreadExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor);
+    }
+
+    /**
+     * Where reactive pipelines run blocking calls such as JDBC queries.
+     */
+    @Bean
+    public Scheduler blockingScheduler(
+            @Qualifier(VIRTUAL_THREAD_EXECUTOR) ObjectProvider<ExecutorService> virtualThreadExecutor) {
+        ExecutorService executor = virtualThreadExecutor.getIfAvailable();
+        return executor == null
+                ? Schedulers.boundedElastic()
+                : Schedulers.fromExecutorService(executor, "virtual");
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecore.roles.configuration;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads while the code base still compiles for Java 11. Everything goes through
+ * reflection and is only usable when the application runs on a JDK that provides virtual threads
+ * (21 or later).
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {}
+
+    /**
+     * Factory for virtual threads named {@code prefix0}, {@code prefix1}, ...
+     */
+    public static ThreadFactory factory(String prefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                    "Virtual threads are not available on Java " + Runtime.version().feature()
+                            + ", they require Java 21 or later",
+                    e);
+        }
+    }
+
+    /**
+     * Unbounded executor that starts a new virtual thread for every task.
+     */
+    public static ExecutorService newExecutor(String prefix) {
+        ThreadFactory factory = factory(prefix);
+        try {
+            Method newThreadPerTaskExecutor =
+                    Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+}
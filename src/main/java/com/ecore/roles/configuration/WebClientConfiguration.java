@@ -0,0 +1,40 @@
+package com.ecore.roles.configuration;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class WebClientConfiguration {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider clientsConnectionProvider(
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        ClientsConfigurationProperties.Http http = clientsConfigurationProperties.getHttp();
+        // reactor-netty pools connections per remote host, so the per-route limit applies here
+        return ConnectionProvider.builder("clients")
+                .maxConnections(http.getMaxConnectionsPerRoute())
+                .pendingAcquireTimeout(http.getConnectionRequestTimeout())
+                .maxIdleTime(http.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClient clientsWebClient(
+            WebClient.Builder builder,
+            ConnectionProvider clientsConnectionProvider,
+            ClientsConfigurationProperties clientsConfigurationProperties) {
+        ClientsConfigurationProperties.Http http = clientsConfigurationProperties.getHttp();
+        HttpClient httpClient = HttpClient.create(clientsConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) http.getConnectTimeout().toMillis())
+                .responseTimeout(http.getReadTimeout());
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.web.rest.AsyncExecutors;
+import com.ecore.roles.web.rest.AsyncTimeouts;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final ObjectProvider<AsyncTaskExecutor> applicationTaskExecutor;
+
+    public WebConfiguration(
+            @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME) ObjectProvider<AsyncTaskExecutor> applicationTaskExecutor) {
+        this.applicationTaskExecutor = applicationTaskExecutor;
+    }
+
+    /**
+     * Asynchronous responses keep running on Spring Boot's task executor, or on Spring MVC's own
+     * default when there is none, unless their handler picked another one through
+     * {@link AsyncExecutors}.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new AsyncExecutors(
+                applicationTaskExecutor.getIfAvailable(() -> new SimpleAsyncTaskExecutor("MvcAsync"))));
+        configurer.registerCallableInterceptors(new AsyncTimeouts());
+    }
+}
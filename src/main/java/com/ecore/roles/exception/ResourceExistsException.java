@@ -7,4 +7,8 @@ public class ResourceExistsException extends RuntimeException {
     public <T> ResourceExistsException(Class<T> resource) {
         super(format("%s already exists", resource.getSimpleName()));
     }
+
+    public <T> ResourceExistsException(Class<T> resource, String reason) {
+        super(format("%s already exists. %s", resource.getSimpleName(), reason));
+    }
 }
@@ -0,0 +1,52 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class AuditEvent {
+
+    public enum Action {
+        ROLE_CREATED,
+        MEMBERSHIP_CREATED,
+        MEMBERSHIP_DELETED
+    }
+
+    private final Instant occurredAt;
+
+    private final Action action;
+
+    private final UUID entityId;
+
+    private final Map<String, Object> details;
+
+    public static AuditEvent roleCreated(Role role) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("name", role.getName());
+        return new AuditEvent(Instant.now(), Action.ROLE_CREATED, role.getId(), details);
+    }
+
+    public static AuditEvent membershipCreated(Membership membership) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("roleId", membership.getRole().getId());
+        details.put("teamId", membership.getTeamId());
+        details.put("userId", membership.getUserId());
+        return new AuditEvent(Instant.now(), Action.MEMBERSHIP_CREATED, membership.getId(), details);
+    }
+
+    public static AuditEvent membershipDeleted(MembershipRef membership) {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("roleId", membership.getRoleId());
+        details.put("teamId", membership.getTeamId());
+        details.put("userId", membership.getUserId());
+        return new AuditEvent(Instant.now(), Action.MEMBERSHIP_DELETED, membership.getId(), details);
+    }
+}
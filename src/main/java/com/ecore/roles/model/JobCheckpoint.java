@@ -0,0 +1,45 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.Type;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of a job that walks a dataset in key order: everything up to and including
+ * {@code lastKey} has been processed. Jobs that read a file instead, such as membership imports,
+ * leave {@code lastKey} empty and count the lines they have consumed in {@code processed}.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@Entity
+public class JobCheckpoint {
+
+    @Id
+    private String name;
+
+    @Column(name = "last_key")
+    @Type(type = "uuid-binary")
+    private UUID lastKey;
+
+    private long processed;
+
+    private long created;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+}
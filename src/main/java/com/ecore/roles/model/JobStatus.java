@@ -0,0 +1,39 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class JobStatus {
+
+    public enum State {
+        IDLE,
+        RUNNING,
+        STOPPING,
+        STOPPED,
+        COMPLETED,
+        FAILED
+    }
+
+    private final String name;
+
+    private final State state;
+
+    private final long totalItems;
+
+    private final long processedItems;
+
+    private final long created;
+
+    private final UUID lastKey;
+
+    private final Instant updatedAt;
+
+    private final String error;
+}
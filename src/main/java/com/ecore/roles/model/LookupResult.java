@@ -0,0 +1,25 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class LookupResult<T> {
+
+    private final UUID id;
+
+    private final T value;
+
+    private final int status;
+
+    private final String error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -23,7 +23,7 @@ public class Membership {
     @Id
     @GeneratedValue(generator = "uuid2")
     @GenericGenerator(name = "uuid2", strategy = "uuid2")
-    @Type(type = "uuid-char")
+    @Type(type = "uuid-binary")
     private UUID id;
 
     @OneToOne
@@ -31,9 +31,11 @@ public class Membership {
     private Role role;
 
     @Column(name = "user_id", nullable = false)
+    @Type(type = "uuid-binary")
     private UUID userId;
 
     @Column(name = "team_id", nullable = false)
+    @Type(type = "uuid-binary")
     private UUID teamId;
 
 }
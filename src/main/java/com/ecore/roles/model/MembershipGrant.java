@@ -0,0 +1,17 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@Getter
+public class MembershipGrant {
+
+    private final UUID teamId;
+
+    private final UUID userId;
+
+    private final UUID roleId;
+}
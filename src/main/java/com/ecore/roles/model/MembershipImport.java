@@ -0,0 +1,42 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Outcome of one run of a membership import. Counts cover the lines read by this run, which starts
+ * after {@code resumedAfterLine} when an earlier run of the same import failed.
+ */
+@AllArgsConstructor
+@Builder
+@Getter
+public class MembershipImport {
+
+    private final String name;
+
+    private final long resumedAfterLine;
+
+    private final long linesRead;
+
+    private final long created;
+
+    private final long duplicates;
+
+    private final long invalid;
+
+    private final Duration duration;
+
+    /**
+     * The first invalid lines, as {@code "line <n>: <reason>"}.
+     */
+    private final List<String> errors;
+
+    public long getRowsPerSecond() {
+        long millis = Math.max(1, duration.toMillis());
+        return linesRead * 1000 / millis;
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+public class MembershipKey {
+
+    private final UUID teamId;
+
+    private final UUID userId;
+
+    public static MembershipKey of(Membership membership) {
+        return new MembershipKey(membership.getTeamId(), membership.getUserId());
+    }
+}
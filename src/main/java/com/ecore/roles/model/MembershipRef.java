@@ -0,0 +1,27 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@Getter
+@EqualsAndHashCode
+@ToString
+public class MembershipRef {
+
+    private final UUID id;
+
+    private final UUID teamId;
+
+    private final UUID userId;
+
+    private final UUID roleId;
+
+    public MembershipKey toKey() {
+        return new MembershipKey(teamId, userId);
+    }
+}
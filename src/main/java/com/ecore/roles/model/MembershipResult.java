@@ -0,0 +1,21 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class MembershipResult {
+
+    private final Membership membership;
+
+    private final int status;
+
+    private final String error;
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
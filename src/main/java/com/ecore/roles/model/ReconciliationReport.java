@@ -0,0 +1,37 @@
+package com.ecore.roles.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class ReconciliationReport {
+
+    private final JobStatus.State state;
+
+    private final boolean dryRun;
+
+    private final long teamsScanned;
+
+    private final long membershipsScanned;
+
+    private final long orphansFound;
+
+    private final long orphansRemoved;
+
+    private final long teamsFailed;
+
+    private final Duration duration;
+
+    /**
+     * The first orphans found, up to {@code jobs.membership-reconciliation.max-reported-orphans}.
+     */
+    private final List<MembershipRef> orphans;
+
+    private final String error;
+}
@@ -25,7 +25,7 @@ public class Role {
     @Id
     @GeneratedValue(generator = "uuid2")
     @GenericGenerator(name = "uuid2", strategy = "uuid2")
-    @Type(type = "uuid-char")
+    @Type(type = "uuid-binary")
     private UUID id;
 
     @Column(nullable = false, unique = true)
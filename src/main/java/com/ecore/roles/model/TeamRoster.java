@@ -0,0 +1,18 @@
+package com.ecore.roles.model;
+
+import com.ecore.roles.client.model.Team;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class TeamRoster {
+
+    private final Team team;
+
+    private final List<TeamRosterMember> members;
+}
@@ -0,0 +1,30 @@
+package com.ecore.roles.model;
+
+import com.ecore.roles.client.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.UUID;
+
+@AllArgsConstructor
+@Builder
+@Getter
+public class TeamRosterMember {
+
+    private final UUID userId;
+
+    private final boolean teamLead;
+
+    /**
+     * Null when the user could not be resolved, see {@link #error}.
+     */
+    private final User user;
+
+    /**
+     * Null when the user has no membership in the team.
+     */
+    private final Role role;
+
+    private final String error;
+}
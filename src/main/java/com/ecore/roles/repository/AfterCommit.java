@@ -0,0 +1,26 @@
+package com.ecore.roles.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Runs in-memory follow-ups of a write once the surrounding transaction has committed, or right
+ * away when there is none, so nothing is published for a write that is later rolled back.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {}
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.configuration.AuditConfigurationProperties;
+import com.ecore.roles.configuration.AuditConfigurationProperties.Durability;
+import com.ecore.roles.model.AuditEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Append-only audit trail written behind the audited change. Events are queued once the change has
+ * committed and a single background writer inserts whatever has accumulated in one JDBC batch, so
+ * the write path pays for an enqueue instead of an insert. How a full queue is handled is set by
+ * {@code audit.durability}. Events still queued at shutdown are written before the application
+ * stops, while those queued at a crash are lost: the audit trail is best effort in every mode,
+ * including {@link Durability#WAIT_FOR_WRITE}, which only shortens the window by holding the call.
+ * <p>
+ * The writer has a connection pool of its own to {@code spring.datasource}. A call held by
+ * {@link Durability#WAIT_FOR_WRITE} still has its transaction's connection checked out, because
+ * Spring only returns it after the commit callbacks, so with a shared pool enough held calls would
+ * starve the writer they are waiting for.
+ */
+@Log4j2
+@Component
+public class AuditLog {
+
+    private static final String INSERT =
+            "insert into audit_event (occurred_at, action, entity_id, details) values (?, ?, ?, ?)";
+    private static final long POLL_MILLIS = 200;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HikariDataSource writerDataSource;
+    private final ObjectMapper objectMapper;
+    private final AuditConfigurationProperties properties;
+    private final BlockingQueue<Pending> queue;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+
+    private volatile boolean running;
+    private Thread writer;
+
+    @Autowired
+    public AuditLog(
+            DataSourceProperties dataSourceProperties,
+            ObjectMapper objectMapper,
+            AuditConfigurationProperties properties,
+            MeterRegistry meterRegistry) {
+        this(writerDataSource(dataSourceProperties), null, objectMapper, properties, meterRegistry);
+    }
+
+    AuditLog(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            AuditConfigurationProperties properties,
+            MeterRegistry meterRegistry) {
+        this(null, jdbcTemplate, objectMapper, properties, meterRegistry);
+    }
+
+    private AuditLog(
+            HikariDataSource writerDataSource,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            AuditConfigurationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.writerDataSource = writerDataSource;
+        this.jdbcTemplate = jdbcTemplate != null ? jdbcTemplate : new JdbcTemplate(writerDataSource);
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.dropped = Counter.builder("audit.events.dropped")
+                .description("Events lost because the queue was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("audit.events.written").register(meterRegistry);
+        this.failed = Counter.builder("audit.events.failed")
+                .description("Events lost because their batch could not be inserted")
+                .register(meterRegistry);
+        Gauge.builder("audit.queue.depth", queue, BlockingQueue::size)
+                .description("Events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeUntilStopped, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        if (writerDataSource != null) {
+            writerDataSource.close();
+        }
+    }
+
+    // one connection is enough for the single writer thread, and it is only opened on the first write
+    private static HikariDataSource writerDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource =
+                dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("audit");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setMinimumIdle(0);
+        return dataSource;
+    }
+
+    public void record(AuditEvent event) {
+        record(List.of(event));
+    }
+
+    /**
+     * Queues the events once the surrounding transaction has committed; nothing is recorded for a
+     * change that is rolled back.
+     */
+    public void record(List<AuditEvent> events) {
+        if (properties.isEnabled() && !events.isEmpty()) {
+            AfterCommit.run(() -> enqueue(events));
+        }
+    }
+
+    private void enqueue(List<AuditEvent> events) {
+        Durability durability = properties.getDurability();
+        long timeoutNanos = properties.getOfferTimeout().toNanos();
+        long deadline = System.nanoTime() + timeoutNanos;
+        List<CompletableFuture<Void>> writes = new ArrayList<>();
+        for (AuditEvent event : events) {
+            Pending pending = new Pending(event, durability == Durability.WAIT_FOR_WRITE
+                    ? new CompletableFuture<>()
+                    : null);
+            if (!offer(pending, durability == Durability.DROP_WHEN_FULL ? 0 : deadline - System.nanoTime())) {
+                dropped.increment();
+            } else if (pending.written != null) {
+                writes.add(pending.written);
+            }
+        }
+        if (!writes.isEmpty()) {
+            awaitWrite(writes, deadline);
+        }
+    }
+
+    private boolean offer(Pending pending, long timeoutNanos) {
+        try {
+            return timeoutNanos <= 0
+                    ? queue.offer(pending)
+                    : queue.offer(pending, timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the writer without failing the caller, whose change has already committed.
+     */
+    private void awaitWrite(List<CompletableFuture<Void>> writes, long deadline) {
+        try {
+            CompletableFuture.allOf(writes.toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Audit events were not written within {}", properties.getOfferTimeout());
+        } catch (ExecutionException e) {
+            log.warn("Audit events could not be written", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeUntilStopped() {
+        while (running || !queue.isEmpty()) {
+            try {
+                writeBatch(POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes the next batch, waiting up to {@code waitMillis} for the first event.
+     */
+    void writeBatch(long waitMillis) throws InterruptedException {
+        Pending first = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        List<Pending> batch = new ArrayList<>(Math.min(properties.getBatchSize(), queue.size() + 1));
+        batch.add(first);
+        queue.drainTo(batch, properties.getBatchSize() - 1);
+        try {
+            List<Object[]> rows = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                rows.add(row(pending.event));
+            }
+            jdbcTemplate.batchUpdate(INSERT, rows);
+            written.increment(batch.size());
+            batch.forEach(pending -> pending.complete(null));
+        } catch (RuntimeException e) {
+            failed.increment(batch.size());
+            log.error("Failed to write {} audit events", batch.size(), e);
+            batch.forEach(pending -> pending.complete(e));
+        }
+    }
+
+    private Object[] row(AuditEvent event) {
+        return new Object[] {
+                Timestamp.from(event.getOccurredAt()),
+                event.getAction().name(),
+                UuidBytes.of(event.getEntityId()),
+                details(event)
+        };
+    }
+
+    private String details(AuditEvent event) {
+        if (event.getDetails() == null || event.getDetails().isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(event.getDetails());
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Audit details are not serializable", e);
+        }
+    }
+
+    private static final class Pending {
+
+        private final AuditEvent event;
+        private final CompletableFuture<Void> written;
+
+        private Pending(AuditEvent event, CompletableFuture<Void> written) {
+            this.event = event;
+            this.written = written;
+        }
+
+        private void complete(RuntimeException failure) {
+            if (written == null) {
+                return;
+            }
+            if (failure == null) {
+                written.complete(null);
+            } else {
+                written.completeExceptionally(failure);
+            }
+        }
+    }
+}
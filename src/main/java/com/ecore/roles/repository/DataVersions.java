@@ -0,0 +1,230 @@
+package com.ecore.roles.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Per-dataset change counters used to build ETags. The shared counters live in the
+ * {@code data_version} table, but writers never touch it inside their own transaction: once a write
+ * has committed, its dataset's row is bumped in a short transaction of its own, so writers of the
+ * same dataset do not queue on the row and a rolled back write never moves it. The bump runs while
+ * the writer still holds its connection, so it takes a single-connection pool of its own rather
+ * than a second connection from the pool the writers share. Each instance keeps the last version it
+ * has seen in memory, from its own bumps and from reading the table every
+ * {@code data-versions.refresh-interval}, so conditional reads are answered without the database. A
+ * tag can therefore miss another instance's write for up to that interval, but a version is only
+ * seen after the change that produced it has committed, so it never labels data older than itself.
+ */
+@Log4j2
+@Component
+public class DataVersions {
+
+    public enum Dataset {
+        ROLES,
+        MEMBERSHIPS
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate bumps;
+    private final DataSource bumpDataSource;
+    private final TransactionTemplate bumpTransaction;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Map<Dataset, Counter> counters = new EnumMap<>(Dataset.class);
+
+    @Autowired
+    public DataVersions(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            DataSourceProperties dataSourceProperties) {
+        this(jdbcTemplate, transactionManager, bumpDataSource(dataSourceProperties));
+    }
+
+    DataVersions(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            DataSource bumpDataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.bumpDataSource = bumpDataSource;
+        this.bumps = new JdbcTemplate(bumpDataSource);
+        this.bumpTransaction = new TransactionTemplate(new DataSourceTransactionManager(bumpDataSource));
+        this.bumpTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        for (Dataset dataset : Dataset.values()) {
+            counters.put(dataset, new Counter());
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (bumpDataSource instanceof HikariDataSource) {
+            ((HikariDataSource) bumpDataSource).close();
+        }
+    }
+
+    /**
+     * Catches up with the versions other instances have published.
+     */
+    @PostConstruct
+    @Scheduled(
+            initialDelayString = "#{@dataVersionsConfigurationProperties.refreshInterval.toMillis()}",
+            fixedDelayString = "#{@dataVersionsConfigurationProperties.refreshInterval.toMillis()}")
+    public void refresh() {
+        try {
+            jdbcTemplate.query("select dataset, version from data_version", rs -> {
+                counters.get(Dataset.valueOf(rs.getString(1))).advance(rs.getLong(2), false);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not read the data versions, keeping the current ones", e);
+        }
+    }
+
+    /**
+     * The last version of the dataset this instance has seen.
+     */
+    public long version(Dataset dataset) {
+        return counters.get(dataset).current();
+    }
+
+    /**
+     * Reads the dataset's version from the database. Read it before loading the data it labels.
+     */
+    public long load(Dataset dataset) {
+        long version = stored(dataset);
+        counters.get(dataset).advance(version, false);
+        return version;
+    }
+
+    /**
+     * Whether the dataset has moved past {@code version} through a write this instance did not make
+     * itself, and which it therefore has not applied to any in-memory copy of the data. When in doubt,
+     * for example when two local writes publish out of order, the answer is yes.
+     */
+    public boolean changedElsewhere(Dataset dataset, long version) {
+        return counters.get(dataset).foreign() > version;
+    }
+
+    /**
+     * Publishes a new version of the dataset once the surrounding transaction has committed.
+     */
+    public void changed(Dataset dataset) {
+        AfterCommit.run(() -> bump(dataset));
+    }
+
+    /**
+     * Bumps the dataset's shared version in a transaction of its own and returns the new version, or -1
+     * when it could not be bumped. Call it only after the change it publishes has committed.
+     */
+    long bump(Dataset dataset) {
+        try {
+            long version = bumpTransaction.execute(status -> {
+                bumps.update("update data_version set version = version + 1 where dataset = ?",
+                        dataset.name());
+                return stored(bumps, dataset);
+            });
+            counters.get(dataset).advance(version, true);
+            return version;
+        } catch (RuntimeException e) {
+            log.warn("Could not publish a change of {}, other instances miss it until the next one",
+                    dataset, e);
+            return -1;
+        }
+    }
+
+    /**
+     * Strong ETag over the versions of the given datasets this instance has seen, for answering
+     * If-None-Match. Read it before reading the data it labels.
+     */
+    public String etag(Dataset... datasets) {
+        long[] versions = new long[datasets.length];
+        for (int i = 0; i < datasets.length; i++) {
+            versions[i] = version(datasets[i]);
+        }
+        return etag(versions);
+    }
+
+    /**
+     * Runs {@code read} in a read-only transaction and passes it the ETag stored in the database that
+     * transaction reads from, so with a read replica the tag and the data come from the same place.
+     */
+    public <T> T readTagged(Function<String, T> read, Dataset... datasets) {
+        return readOnlyTransaction.execute(status -> {
+            long[] versions = new long[datasets.length];
+            for (int i = 0; i < datasets.length; i++) {
+                versions[i] = stored(datasets[i]);
+            }
+            return read.apply(etag(versions));
+        });
+    }
+
+    public static String etag(long... versions) {
+        StringBuilder etag = new StringBuilder("\"");
+        for (int i = 0; i < versions.length; i++) {
+            etag.append(i == 0 ? "" : "-").append(versions[i]);
+        }
+        return etag.append('"').toString();
+    }
+
+    private long stored(Dataset dataset) {
+        return stored(jdbcTemplate, dataset);
+    }
+
+    private static long stored(JdbcTemplate jdbcTemplate, Dataset dataset) {
+        return jdbcTemplate.queryForObject("select version from data_version where dataset = ?", Long.class,
+                dataset.name());
+    }
+
+    // it is only opened on the first bump
+    private static HikariDataSource bumpDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource =
+                dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("data-versions");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setMinimumIdle(0);
+        return dataSource;
+    }
+
+    private static final class Counter {
+
+        private long current = -1;
+        private long foreign = -1;
+
+        private synchronized long current() {
+            return current;
+        }
+
+        private synchronized long foreign() {
+            return foreign;
+        }
+
+        /**
+         * Only a bump made here that directly follows the current version is known to be this instance's
+         * own; any other step may contain someone else's write.
+         */
+        private synchronized void advance(long version, boolean bumpedHere) {
+            if (version <= current) {
+                return;
+            }
+            if (!bumpedHere || version != current + 1) {
+                foreign = version;
+            }
+            current = version;
+        }
+    }
+}
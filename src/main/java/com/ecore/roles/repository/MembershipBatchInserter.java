@@ -0,0 +1,43 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inserts memberships with a single JDBC batch, bypassing the persistence context. Meant for loads
+ * too large to go through entities; the memberships must carry their ids.
+ */
+@Component
+public class MembershipBatchInserter {
+
+    private static final String INSERT =
+            "insert into membership (id, role_id, user_id, team_id) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MembershipBatchInserter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insert(List<Membership> memberships) {
+        if (memberships.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(memberships.size());
+        for (Membership m : memberships) {
+            rows.add(new Object[] {
+                    UuidBytes.of(m.getId()),
+                    UuidBytes.of(m.getRole().getId()),
+                    UuidBytes.of(m.getUserId()),
+                    UuidBytes.of(m.getTeamId())
+            });
+        }
+        jdbcTemplate.batchUpdate(INSERT, rows);
+    }
+}
@@ -0,0 +1,97 @@
+package com.ecore.roles.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes memberships as newline-delimited JSON straight from a JDBC cursor. Rows never become
+ * entities, nor even UUIDs: the binary ids are hex-encoded into one reusable line buffer, so memory
+ * use does not depend on the number of rows. Every line has the shape of {@code MembershipDto}.
+ */
+@Component
+public class MembershipExporter {
+
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final String[] FIELDS = {"id", "roleId", "teamMemberId", "teamId"};
+    private static final byte[] TEMPLATE;
+    private static final int[] OFFSETS = new int[FIELDS.length];
+
+    static {
+        StringBuilder template = new StringBuilder("{");
+        for (int i = 0; i < FIELDS.length; i++) {
+            template.append(i == 0 ? "" : ",").append('"').append(FIELDS[i]).append("\":\"");
+            OFFSETS[i] = template.length();
+            template.append("00000000-0000-0000-0000-000000000000\"");
+        }
+        TEMPLATE = template.append("}\n").toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    public MembershipExporter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Writes every membership, optionally only those of a role and/or team, to {@code out} and returns
+     * how many were written. Rows come in no particular order. The caller buffers {@code out}.
+     */
+    public long export(UUID roleId, UUID teamId, OutputStream out) {
+        StringBuilder sql = new StringBuilder("select id, role_id, user_id, team_id from membership");
+        List<byte[]> args = new ArrayList<>(2);
+        if (roleId != null) {
+            sql.append(" where role_id = ?");
+            args.add(UuidBytes.of(roleId));
+        }
+        if (teamId != null) {
+            sql.append(args.isEmpty() ? " where" : " and").append(" team_id = ?");
+            args.add(UuidBytes.of(teamId));
+        }
+        byte[] line = TEMPLATE.clone();
+        long[] written = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString(),
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(StreamingFetchSize.of(connection));
+            for (int i = 0; i < args.size(); i++) {
+                statement.setBytes(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> {
+            for (int i = 0; i < OFFSETS.length; i++) {
+                writeUuid(rs.getBytes(i + 1), line, OFFSETS[i]);
+            }
+            try {
+                out.write(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written[0]++;
+        });
+        return written[0];
+    }
+
+    private static void writeUuid(byte[] uuid, byte[] line, int offset) {
+        int position = offset;
+        for (int i = 0; i < 16; i++) {
+            if (i == 4 || i == 6 || i == 8 || i == 10) {
+                line[position++] = '-';
+            }
+            line[position++] = HEX[(uuid[i] >> 4) & 0xF];
+            line[position++] = HEX[uuid[i] & 0xF];
+        }
+    }
+}
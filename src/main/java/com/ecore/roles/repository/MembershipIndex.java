@@ -0,0 +1,372 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipGrant;
+import com.ecore.roles.model.MembershipKey;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static com.ecore.roles.repository.DataVersions.Dataset.MEMBERSHIPS;
+
+/**
+ * In-memory answer to "which role does user U have in team T", loaded from the membership table at
+ * startup and kept current by this instance's membership write paths. Writes made by other
+ * instances only show up when the index is reloaded: every
+ * {@code membership-index.refresh-interval} it asks {@link DataVersions} whether the memberships
+ * version moved through a write this instance did not make, and reloads only then, so answers can
+ * be that much behind another instance's writes while this instance's own writes never cause a
+ * reload.
+ * <p>
+ * Entries live in an open-addressing table of primitive arrays: a key takes four consecutive longs
+ * (the team and user UUIDs) and its role an int ordinal into the few distinct role ids, so there
+ * are no per-entry objects and a membership costs 48 to 96 bytes depending on how full the table
+ * is. Lookups are optimistic reads that only take the lock when they raced with a write.
+ */
+@Log4j2
+@Component
+public class MembershipIndex {
+
+    private static final int MIN_CAPACITY = 1 << 10;
+    private static final int MAX_LOAD_PERCENT = 75;
+
+    private final MembershipRepository membershipRepository;
+    private final TransactionOperations transactionOperations;
+    private final DataVersions dataVersions;
+    private final StampedLock lock = new StampedLock();
+    private final Object rebuildLock = new Object();
+
+    private volatile Table table = new Table(MIN_CAPACITY);
+    private volatile long loadedVersion = -1;
+    // changes made while a rebuild scans the table, replayed onto its result; guarded by this
+    private List<UnaryOperator<Table>> pending;
+
+    @Autowired
+    public MembershipIndex(
+            MembershipRepository membershipRepository,
+            TransactionOperations transactionOperations,
+            DataVersions dataVersions) {
+        this.membershipRepository = membershipRepository;
+        this.transactionOperations = transactionOperations;
+        this.dataVersions = dataVersions;
+    }
+
+    /**
+     * Replaces the index with the current content of the membership table. Writes keep being applied
+     * during the scan and are replayed onto its result, so none of them is lost to a scan that started
+     * before it committed.
+     */
+    @PostConstruct
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            // read before the scan, so a write committing during it leaves the version ahead of the index
+            long version = dataVersions.load(MEMBERSHIPS);
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Table rebuilt = null;
+            try {
+                rebuilt = load();
+            } finally {
+                install(rebuilt);
+            }
+            loadedVersion = version;
+            log.info("Membership index loaded with {} memberships", rebuilt.size);
+        }
+    }
+
+    /**
+     * Reloads the index if memberships were changed by another instance, or outside this one's write
+     * paths, since the last load.
+     */
+    @Scheduled(
+            initialDelayString = "#{@membershipIndexConfigurationProperties.refreshInterval.toMillis()}",
+            fixedDelayString = "#{@membershipIndexConfigurationProperties.refreshInterval.toMillis()}")
+    public void refresh() {
+        try {
+            if (dataVersions.changedElsewhere(MEMBERSHIPS, loadedVersion)) {
+                rebuild();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not reload the membership index, keeping the current one", e);
+        }
+    }
+
+    private Table load() {
+        return transactionOperations.execute(status -> {
+            Table loading = new Table(MIN_CAPACITY);
+            try (Stream<MembershipGrant> grants = membershipRepository.streamGrants()) {
+                for (MembershipGrant grant : (Iterable<MembershipGrant>) grants::iterator) {
+                    loading = loading.ensureCapacity();
+                    loading.put(grant.getTeamId(), grant.getUserId(), grant.getRoleId());
+                }
+            }
+            return loading;
+        });
+    }
+
+    /**
+     * Publishes a rebuilt table with the writes made during its scan replayed onto it, or only stops
+     * recording writes when the scan failed.
+     */
+    private synchronized void install(Table rebuilt) {
+        List<UnaryOperator<Table>> changes = pending;
+        pending = null;
+        if (rebuilt == null) {
+            return;
+        }
+        for (UnaryOperator<Table> change : changes) {
+            rebuilt = change.apply(rebuilt);
+        }
+        long stamp = lock.writeLock();
+        try {
+            table = rebuilt;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Indexes a saved membership once the surrounding transaction has committed.
+     */
+    public void added(Membership membership) {
+        added(List.of(membership));
+    }
+
+    public void added(Collection<Membership> memberships) {
+        AfterCommit.run(() -> put(memberships));
+    }
+
+    /**
+     * Drops deleted memberships once the surrounding transaction has committed.
+     */
+    public void removed(Collection<MembershipKey> keys) {
+        AfterCommit.run(() -> remove(keys));
+    }
+
+    public Optional<UUID> findRoleId(UUID userId, UUID teamId) {
+        long stamp = lock.tryOptimisticRead();
+        UUID roleId = table.get(teamId, userId);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                roleId = table.get(teamId, userId);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return Optional.ofNullable(roleId);
+    }
+
+    public boolean hasRole(UUID userId, UUID teamId, UUID roleId) {
+        return findRoleId(userId, teamId).map(roleId::equals).orElse(false);
+    }
+
+    public int size() {
+        return table.size;
+    }
+
+    private synchronized void put(Collection<Membership> memberships) {
+        apply(table -> {
+            Table current = table;
+            for (Membership m : memberships) {
+                current = current.ensureCapacity();
+                current.put(m.getTeamId(), m.getUserId(), m.getRole().getId());
+            }
+            return current;
+        });
+    }
+
+    private synchronized void remove(Collection<MembershipKey> keys) {
+        apply(table -> {
+            for (MembershipKey key : keys) {
+                table.remove(key.getTeamId(), key.getUserId());
+            }
+            return table;
+        });
+    }
+
+    private synchronized void apply(UnaryOperator<Table> change) {
+        if (pending != null) {
+            pending.add(change);
+        }
+        long stamp = lock.writeLock();
+        try {
+            table = change.apply(table);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Slot i holds its key in {@code keys[4i..4i+3]} and its role in {@code ordinals[i]}, where 0 marks
+     * a free slot and n the role at {@code roles[n - 1]}. Tables only grow by copying into a new one,
+     * so a reader racing with a write always probes arrays of matching sizes and finds a free slot,
+     * even if what it reads is torn. Removal shifts later entries of the probe run back into the freed
+     * slot instead of leaving a tombstone, so lookups never get longer after deletes.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final int[] ordinals;
+        private final int mask;
+        private UUID[] roles;
+        private final Map<UUID, Integer> roleOrdinals;
+        private int size;
+
+        private Table(int capacity) {
+            this(capacity, new UUID[0], new HashMap<>());
+        }
+
+        private Table(int capacity, UUID[] roles, Map<UUID, Integer> roleOrdinals) {
+            this.keys = new long[capacity * 4];
+            this.ordinals = new int[capacity];
+            this.mask = capacity - 1;
+            this.roles = roles;
+            this.roleOrdinals = roleOrdinals;
+        }
+
+        private UUID get(UUID teamId, UUID userId) {
+            long teamHigh = teamId.getMostSignificantBits();
+            long teamLow = teamId.getLeastSignificantBits();
+            long userHigh = userId.getMostSignificantBits();
+            long userLow = userId.getLeastSignificantBits();
+            for (int slot = hash(teamHigh, teamLow, userHigh, userLow) & mask;; slot = (slot + 1) & mask) {
+                int ordinal = ordinals[slot];
+                if (ordinal == 0) {
+                    return null;
+                }
+                int k = slot * 4;
+                if (keys[k] == teamHigh && keys[k + 1] == teamLow && keys[k + 2] == userHigh
+                        && keys[k + 3] == userLow) {
+                    UUID[] current = roles;
+                    return ordinal <= current.length ? current[ordinal - 1] : null;
+                }
+            }
+        }
+
+        private void put(UUID teamId, UUID userId, UUID roleId) {
+            long teamHigh = teamId.getMostSignificantBits();
+            long teamLow = teamId.getLeastSignificantBits();
+            long userHigh = userId.getMostSignificantBits();
+            long userLow = userId.getLeastSignificantBits();
+            int ordinal = ordinal(roleId);
+            for (int slot = hash(teamHigh, teamLow, userHigh, userLow) & mask;; slot = (slot + 1) & mask) {
+                int k = slot * 4;
+                if (ordinals[slot] == 0) {
+                    keys[k] = teamHigh;
+                    keys[k + 1] = teamLow;
+                    keys[k + 2] = userHigh;
+                    keys[k + 3] = userLow;
+                    ordinals[slot] = ordinal;
+                    size++;
+                    return;
+                }
+                if (keys[k] == teamHigh && keys[k + 1] == teamLow && keys[k + 2] == userHigh
+                        && keys[k + 3] == userLow) {
+                    ordinals[slot] = ordinal;
+                    return;
+                }
+            }
+        }
+
+        private void remove(UUID teamId, UUID userId) {
+            long teamHigh = teamId.getMostSignificantBits();
+            long teamLow = teamId.getLeastSignificantBits();
+            long userHigh = userId.getMostSignificantBits();
+            long userLow = userId.getLeastSignificantBits();
+            int hole = hash(teamHigh, teamLow, userHigh, userLow) & mask;
+            while (true) {
+                if (ordinals[hole] == 0) {
+                    return;
+                }
+                int k = hole * 4;
+                if (keys[k] == teamHigh && keys[k + 1] == teamLow && keys[k + 2] == userHigh
+                        && keys[k + 3] == userLow) {
+                    break;
+                }
+                hole = (hole + 1) & mask;
+            }
+            for (int slot = (hole + 1) & mask; ordinals[slot] != 0; slot = (slot + 1) & mask) {
+                int k = slot * 4;
+                int home = hash(keys[k], keys[k + 1], keys[k + 2], keys[k + 3]) & mask;
+                // the entry may fill the hole only if the hole lies on its probe path
+                if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    System.arraycopy(keys, k, keys, hole * 4, 4);
+                    ordinals[hole] = ordinals[slot];
+                    hole = slot;
+                }
+            }
+            ordinals[hole] = 0;
+            size--;
+        }
+
+        private int ordinal(UUID roleId) {
+            Integer ordinal = roleOrdinals.get(roleId);
+            if (ordinal == null) {
+                UUID[] grown = Arrays.copyOf(roles, roles.length + 1);
+                grown[roles.length] = roleId;
+                roles = grown;
+                ordinal = grown.length;
+                roleOrdinals.put(roleId, ordinal);
+            }
+            return ordinal;
+        }
+
+        /**
+         * This table, or a copy twice its size once the next insert would exceed the load factor.
+         */
+        private Table ensureCapacity() {
+            return (size + 1) * 100L > ordinals.length * (long) MAX_LOAD_PERCENT ? copy(ordinals.length * 2)
+                    : this;
+        }
+
+        private Table copy(int capacity) {
+            Table copy = new Table(capacity, roles, roleOrdinals);
+            for (int slot = 0; slot < ordinals.length; slot++) {
+                if (ordinals[slot] != 0) {
+                    int k = slot * 4;
+                    copy.putOrdinal(keys[k], keys[k + 1], keys[k + 2], keys[k + 3], ordinals[slot]);
+                }
+            }
+            return copy;
+        }
+
+        private void putOrdinal(long teamHigh, long teamLow, long userHigh, long userLow, int ordinal) {
+            int slot = hash(teamHigh, teamLow, userHigh, userLow) & mask;
+            while (ordinals[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            int k = slot * 4;
+            keys[k] = teamHigh;
+            keys[k + 1] = teamLow;
+            keys[k + 2] = userHigh;
+            keys[k + 3] = userLow;
+            ordinals[slot] = ordinal;
+            size++;
+        }
+
+        private static int hash(long teamHigh, long teamLow, long userHigh, long userLow) {
+            long h = teamHigh * 0x9E3779B97F4A7C15L;
+            h = (h ^ teamLow) * 0x9E3779B97F4A7C15L;
+            h = (h ^ userHigh) * 0x9E3779B97F4A7C15L;
+            h = (h ^ userLow) * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
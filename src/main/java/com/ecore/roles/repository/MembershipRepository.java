@@ -1,17 +1,49 @@
 package com.ecore.roles.repository;
 
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipKey;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface MembershipRepository extends JpaRepository<Membership, UUID> {
+public interface MembershipRepository extends JpaRepository<Membership, UUID>, MembershipStreams {
 
     Optional<Membership> findByUserIdAndTeamId(UUID userId, UUID teamId);
 
     List<Membership> findByRoleId(UUID roleId);
+
+    @EntityGraph(attributePaths = "role")
+    List<Membership> findByUserId(UUID userId);
+
+    @EntityGraph(attributePaths = "role")
+    List<Membership> findByTeamId(UUID teamId);
+
+    @Query("select m from Membership m join fetch m.role r where r.id = :roleId order by m.id")
+    List<Membership> findPageByRoleId(@Param("roleId") UUID roleId, Pageable pageable);
+
+    @Query("select m from Membership m join fetch m.role r where r.id = :roleId and m.id > :after order by m.id")
+    List<Membership> findPageByRoleIdAfter(
+            @Param("roleId") UUID roleId,
+            @Param("after") UUID after,
+            Pageable pageable);
+
+    @Query("select new com.ecore.roles.model.MembershipKey(m.teamId, m.userId) from Membership m "
+            + "where m.teamId in :teamIds and m.userId in :userIds")
+    List<MembershipKey> findKeysByTeamIdInAndUserIdIn(
+            @Param("teamIds") Collection<UUID> teamIds,
+            @Param("userIds") Collection<UUID> userIds);
+
+    @Modifying
+    @Query("delete from Membership m where m.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<UUID> ids);
 }
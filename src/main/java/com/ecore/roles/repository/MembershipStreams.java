@@ -0,0 +1,24 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipGrant;
+import com.ecore.roles.model.MembershipRef;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Membership reads that stream their result from the database instead of loading it, see
+ * {@link StreamingFetchSize}. They must be consumed inside a transaction.
+ */
+public interface MembershipStreams {
+
+    Stream<Membership> streamByRoleId(UUID roleId);
+
+    Stream<MembershipGrant> streamGrants();
+
+    /**
+     * All memberships grouped by team, as projections that do not enter the persistence context.
+     */
+    Stream<MembershipRef> streamRefsOrderByTeamId();
+}
@@ -0,0 +1,49 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipGrant;
+import com.ecore.roles.model.MembershipRef;
+import org.hibernate.Session;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+
+class MembershipStreamsImpl implements MembershipStreams {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Membership> streamByRoleId(UUID roleId) {
+        return stream(entityManager.createQuery(
+                "select m from Membership m join fetch m.role r where r.id = :roleId order by m.id",
+                Membership.class)
+                .setParameter("roleId", roleId));
+    }
+
+    @Override
+    public Stream<MembershipGrant> streamGrants() {
+        return stream(entityManager.createQuery(
+                "select new com.ecore.roles.model.MembershipGrant(m.teamId, m.userId, m.role.id) from Membership m",
+                MembershipGrant.class));
+    }
+
+    @Override
+    public Stream<MembershipRef> streamRefsOrderByTeamId() {
+        return stream(entityManager.createQuery(
+                "select new com.ecore.roles.model.MembershipRef(m.id, m.teamId, m.userId, m.role.id) "
+                        + "from Membership m order by m.teamId",
+                MembershipRef.class));
+    }
+
+    private <T> Stream<T> stream(TypedQuery<T> query) {
+        int fetchSize = entityManager.unwrap(Session.class).doReturningWork(StreamingFetchSize::of);
+        return query.setHint(HINT_FETCH_SIZE, fetchSize).getResultStream();
+    }
+}
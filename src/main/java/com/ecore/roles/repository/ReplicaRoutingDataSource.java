@@ -0,0 +1,53 @@
+package com.ecore.roles.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Hands out replica connections to read-only transactions while the {@link ReplicationLagMonitor}
+ * reports the replica usable, and primary connections to everything else. It has to be wrapped in a
+ * {@link LazyConnectionDataSourceProxy}: a JPA transaction asks for its connection before it is
+ * marked read-only, and the proxy postpones choosing one until the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    enum Target {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final ReplicationLagMonitor lagMonitor;
+    private final Counter fallbacks;
+
+    public ReplicaRoutingDataSource(
+            DataSource primaryDataSource,
+            DataSource replicaDataSource,
+            ReplicationLagMonitor lagMonitor,
+            MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        this.fallbacks = Counter.builder("datasource.replica.fallbacks")
+                .description("Read-only transactions sent to the primary because the replica was unusable")
+                .register(meterRegistry);
+        setTargetDataSources(Map.of(Target.PRIMARY, primaryDataSource, Target.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return Target.PRIMARY;
+        }
+        if (lagMonitor.isReplicaUsable()) {
+            return Target.REPLICA;
+        }
+        fallbacks.increment();
+        return Target.PRIMARY;
+    }
+}
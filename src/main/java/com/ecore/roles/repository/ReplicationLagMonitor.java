@@ -0,0 +1,121 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.configuration.ReplicaConfigurationProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how far the read replica is behind the primary. Every {@code replica.heartbeat-interval}
+ * the current time is written to the primary's {@code replica_heartbeat} row and the row is read
+ * back from both databases, so the lag is how far the replica's copy is behind the primary's,
+ * however late the beat itself ran. The heartbeat runs on a thread of its own, so scheduled jobs
+ * that take longer than {@code replica.max-lag} do not hold it up. Until the first check and
+ * whenever the replica cannot be queried or lags by more than {@code replica.max-lag}, it is
+ * reported unusable. Every instance writes the same row, so clock skew between instances adds to
+ * the lag.
+ */
+@Log4j2
+public class ReplicationLagMonitor {
+
+    private static final String BEAT = "update replica_heartbeat set beat_at = ? where id = 1";
+    private static final String READ = "select beat_at from replica_heartbeat where id = 1";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaConfigurationProperties properties;
+    private final ScheduledExecutorService scheduler =
+            Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "replica-heartbeat");
+                thread.setDaemon(true);
+                return thread;
+            });
+
+    private volatile Duration lag;
+    private volatile boolean usable;
+
+    public ReplicationLagMonitor(
+            DataSource primaryDataSource,
+            DataSource replicaDataSource,
+            ReplicaConfigurationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+        this.properties = properties;
+        Gauge.builder("datasource.replica.lag", this,
+                monitor -> monitor.lag == null ? Double.NaN : monitor.lag.toMillis() / 1000.0)
+                .description("How far the replica's copy of the heartbeat is behind the primary's")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = properties.getHeartbeatInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                beat();
+            } catch (RuntimeException e) {
+                log.warn("Replication heartbeat failed", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public void beat() {
+        try {
+            primary.update(BEAT, Timestamp.from(Instant.now()));
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat", e);
+        }
+        check();
+    }
+
+    /**
+     * Compares the replica's heartbeat with the primary's and decides whether the replica may serve
+     * reads.
+     */
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Timestamp primaryBeatAt = primary.queryForObject(READ, Timestamp.class);
+            Timestamp replicaBeatAt = replica.queryForObject(READ, Timestamp.class);
+            lag = primaryBeatAt == null || replicaBeatAt == null
+                    ? null
+                    : Duration.between(replicaBeatAt.toInstant(), primaryBeatAt.toInstant());
+            usable = lag != null && lag.compareTo(properties.getMaxLag()) <= 0;
+        } catch (DataAccessException e) {
+            lag = null;
+            usable = false;
+            log.debug("Could not read the replication heartbeat", e);
+        }
+        if (usable != wasUsable) {
+            log.info(
+                    usable ? "Serving reads from the replica, lag {}"
+                            : "Serving reads from the primary, replica lag {}",
+                    lag == null ? "unknown" : lag);
+        }
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+}
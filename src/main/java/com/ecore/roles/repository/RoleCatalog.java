@@ -0,0 +1,151 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Role;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.ecore.roles.repository.DataVersions.Dataset.ROLES;
+
+/**
+ * In-memory view of the role table, indexed by id and by name. Reads are served from an immutable
+ * snapshot that is replaced as a whole once a write has committed, so readers never observe a
+ * partially applied or rolled back change. Lookups that miss fall back to the database, which picks
+ * up roles created by other instances. The snapshot carries the roles version it stands for, which
+ * is also the ETag of role reads: a role saved here moves it along, and the full list is reloaded
+ * once {@link DataVersions} has seen a version the snapshot does not account for.
+ */
+@Log4j2
+@Component
+public class RoleCatalog {
+
+    private final RoleRepository roleRepository;
+    private final DataVersions dataVersions;
+
+    private volatile Snapshot snapshot = new Snapshot(Collections.emptyList(), -1);
+
+    @Autowired
+    public RoleCatalog(RoleRepository roleRepository, DataVersions dataVersions) {
+        this.roleRepository = roleRepository;
+        this.dataVersions = dataVersions;
+    }
+
+    @PostConstruct
+    public synchronized void reload() {
+        long version = dataVersions.load(ROLES);
+        snapshot = new Snapshot(roleRepository.findAll(), version);
+        log.info("Role catalog loaded with {} roles", snapshot.byId.size());
+    }
+
+    public Optional<Role> findById(UUID id) {
+        Role role = snapshot.byId.get(id);
+        if (role != null) {
+            return Optional.of(role);
+        }
+        return roleRepository.findById(id).map(this::publishAfterCommit);
+    }
+
+    public Optional<Role> findByName(String name) {
+        Role role = snapshot.byName.get(name);
+        if (role != null) {
+            return Optional.of(role);
+        }
+        return roleRepository.findByName(name).map(this::publishAfterCommit);
+    }
+
+    public Map<UUID, Role> findAllById(Collection<UUID> ids) {
+        Snapshot current = snapshot;
+        Map<UUID, Role> roles = new LinkedHashMap<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID id : ids) {
+            Role role = current.byId.get(id);
+            if (role != null) {
+                roles.put(id, role);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            roleRepository.findAllById(missing)
+                    .forEach(role -> roles.put(role.getId(), publishAfterCommit(role)));
+        }
+        return roles;
+    }
+
+    public List<Role> findAll() {
+        return new ArrayList<>(current().byId.values());
+    }
+
+    /**
+     * The roles version the catalog currently serves, answered from memory unless roles changed
+     * somewhere else since the snapshot was loaded.
+     */
+    public long version() {
+        return current().version;
+    }
+
+    public synchronized Role save(Role role) {
+        Role saved = roleRepository.save(role);
+        AfterCommit.run(() -> publish(saved, dataVersions.bump(ROLES)));
+        return saved;
+    }
+
+    private Snapshot current() {
+        if (snapshot.version < dataVersions.version(ROLES)) {
+            reload();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Roles read or written inside a transaction may not be committed yet, so they only reach the
+     * snapshot once it commits.
+     */
+    private Role publishAfterCommit(Role role) {
+        AfterCommit.run(() -> publish(role, -1));
+        return role;
+    }
+
+    /**
+     * Adds the role to the snapshot. The snapshot takes over the version of a save only when it
+     * directly follows its own; otherwise its version stays behind and the next read reloads.
+     */
+    private synchronized void publish(Role role, long version) {
+        snapshot = snapshot.with(role, version == snapshot.version + 1 ? version : snapshot.version);
+    }
+
+    private static final class Snapshot {
+
+        private final Map<UUID, Role> byId;
+        private final Map<String, Role> byName;
+        private final long version;
+
+        private Snapshot(Collection<Role> roles, long version) {
+            Map<UUID, Role> ids = new LinkedHashMap<>();
+            Map<String, Role> names = new LinkedHashMap<>();
+            for (Role role : roles) {
+                ids.put(role.getId(), role);
+                names.put(role.getName(), role);
+            }
+            this.byId = Collections.unmodifiableMap(ids);
+            this.byName = Collections.unmodifiableMap(names);
+            this.version = version;
+        }
+
+        private Snapshot with(Role role, long version) {
+            Map<UUID, Role> ids = new LinkedHashMap<>(byId);
+            ids.put(role.getId(), role);
+            return new Snapshot(ids.values(), version);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecore.roles.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Fetch size for reads that stream a whole table. Connector/J reads the whole result into memory
+ * unless asked to stream row by row with {@link Integer#MIN_VALUE}, which other drivers reject.
+ */
+final class StreamingFetchSize {
+
+    static final int DEFAULT = 1000;
+
+    private StreamingFetchSize() {}
+
+    static int of(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE
+                : DEFAULT;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ecore.roles.repository;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * UUIDs as Hibernate's {@code uuid-binary} type stores them, for reading and writing rows through
+ * JDBC.
+ */
+public final class UuidBytes {
+
+    private UuidBytes() {}
+
+    public static byte[] of(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.model.JobStatus;
+
+public interface DefaultRoleBackfillService {
+
+    String JOB_NAME = "default-role-backfill";
+
+    /**
+     * Starts the backfill in the background, resuming after the last checkpoint of an unfinished run.
+     * Does nothing if it is already running.
+     */
+    JobStatus start();
+
+    /**
+     * Asks a running backfill to stop after its current chunk. The next start resumes from there.
+     */
+    JobStatus stop();
+
+    JobStatus getStatus();
+}
@@ -0,0 +1,29 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.model.MembershipImport;
+
+import java.io.InputStream;
+
+public interface MembershipImportService {
+
+    String CHECKPOINT_PREFIX = "membership-import:";
+
+    enum Format {
+        /**
+         * {@code userId,teamId,role} per line, with an optional header line.
+         */
+        CSV,
+        /**
+         * One JSON object per line with {@code userId} (or {@code teamMemberId}), {@code teamId} and
+         * {@code role} (or {@code roleId}).
+         */
+        NDJSON
+    }
+
+    /**
+     * Reads memberships from {@code in} and inserts those that do not exist yet. Roles are given by
+     * name or id. Progress is checkpointed under {@code name} after every batch, so when a run fails,
+     * running the same import again with the same file skips the lines already imported.
+     */
+    MembershipImport importMemberships(String name, Format format, InputStream in);
+}
@@ -0,0 +1,26 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.model.ReconciliationReport;
+
+public interface MembershipReconciliationService {
+
+    String JOB_NAME = "membership-reconciliation";
+
+    /**
+     * Starts comparing the memberships of every team with its members in the Teams API in the
+     * background. Memberships of users who left their team, or of teams that no longer exist, are
+     * orphans: they are always reported and deleted unless {@code dryRun} is set. Does nothing if a
+     * reconciliation is already running.
+     */
+    ReconciliationReport start(boolean dryRun);
+
+    /**
+     * Asks a running reconciliation to stop reading teams. Teams already read are still checked.
+     */
+    ReconciliationReport stop();
+
+    /**
+     * The progress of the running reconciliation, or the report of the last one.
+     */
+    ReconciliationReport getStatus();
+}
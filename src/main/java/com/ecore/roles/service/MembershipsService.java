@@ -1,14 +1,63 @@
 package com.ecore.roles.service;
 
+import com.ecore.roles.client.model.Team;
 import com.ecore.roles.exception.ResourceNotFoundException;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipRef;
+import com.ecore.roles.model.MembershipResult;
+import com.ecore.roles.model.Role;
 
+import java.io.OutputStream;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 public interface MembershipsService {
 
+    int MAX_PAGE_SIZE = 1_000;
+
     Membership assignRoleToMembership(Membership membership) throws ResourceNotFoundException;
 
+    List<MembershipResult> assignRolesToMemberships(List<Membership> memberships);
+
+    /**
+     * Gives {@code role} to every member of the given teams who has no membership in that team yet.
+     * Returns the memberships created.
+     */
+    List<Membership> assignMissingMemberships(Role role, List<Team> teams);
+
+    /**
+     * Inserts those of the given memberships whose user has no membership in their team yet, with one
+     * existence query and one JDBC batch. Unlike the other write paths it trusts the caller that roles
+     * exist and users belong to their teams. Returns the memberships inserted.
+     */
+    List<Membership> importMemberships(List<Membership> memberships);
+
+    /**
+     * Deletes the given memberships in one statement. Returns how many were still there to delete.
+     */
+    int removeMemberships(Collection<MembershipRef> memberships);
+
     List<Membership> getMemberships(UUID roleId);
+
+    List<Membership> getMemberships(UUID roleId, UUID after, int limit);
+
+    /**
+     * Passes the memberships of a role to {@code consumer} one at a time. Always reads from the
+     * primary, so the result is never older than a version read there before.
+     */
+    void streamMemberships(UUID roleId, Consumer<Membership> consumer);
+
+    /**
+     * Writes the memberships, optionally only those of a role and/or team, to {@code out} as
+     * newline-delimited JSON and returns how many were written.
+     */
+    long exportMemberships(UUID roleId, UUID teamId, OutputStream out);
+
+    List<Membership> getUserMemberships(UUID userId);
+
+    List<Membership> getTeamMemberships(UUID teamId);
+
+    boolean hasRole(UUID userId, UUID teamId, UUID roleId);
 }
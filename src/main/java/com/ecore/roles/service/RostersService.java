@@ -0,0 +1,11 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.model.TeamRoster;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+public interface RostersService {
+
+    Mono<TeamRoster> getTeamRoster(UUID teamId);
+}
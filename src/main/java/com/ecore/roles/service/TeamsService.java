@@ -1,13 +1,31 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.client.model.Team;
+import com.ecore.roles.model.LookupResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface TeamsService {
 
+    int MAX_BATCH_SIZE = 500;
+
     Team getTeam(UUID id);
 
+    /**
+     * Asks the Teams API directly, bypassing the mirror and the cache. Empty only when it answers that
+     * the team does not exist; a response without a team fails.
+     */
+    Optional<Team> fetchTeam(UUID id);
+
     List<Team> getTeams();
+
+    Mono<Team> getTeamAsync(UUID id);
+
+    Flux<Team> getTeamsAsync();
+
+    Mono<List<LookupResult<Team>>> lookupTeams(List<UUID> ids);
 }
@@ -1,13 +1,24 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.client.model.User;
+import com.ecore.roles.model.LookupResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.UUID;
 
 public interface UsersService {
 
+    int MAX_BATCH_SIZE = 500;
+
     User getUser(UUID id);
 
     List<User> getUsers();
+
+    Mono<User> getUserAsync(UUID id);
+
+    Flux<User> getUsersAsync();
+
+    Mono<List<LookupResult<User>>> lookupUsers(List<UUID> ids);
 }
@@ -0,0 +1,102 @@
+package com.ecore.roles.service.impl;
+
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.LookupResult;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Resolves a batch of ids: cache hits are answered straight away, misses are fetched from the
+ * upstream with at most {@code parallelism} requests in flight. Every distinct id gets a result, in
+ * request order.
+ */
+final class BatchLookup {
+
+    private BatchLookup() {}
+
+    static <T> Mono<List<LookupResult<T>>> lookup(
+            Class<T> resource,
+            List<UUID> ids,
+            int maxBatchSize,
+            int parallelism,
+            Function<UUID, T> cached,
+            Function<UUID, Mono<T>> remote) {
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidArgumentException(resource, "Ids must not be null.");
+        }
+        Set<UUID> distinctIds = new LinkedHashSet<>(ids);
+        if (distinctIds.size() > maxBatchSize) {
+            throw new InvalidArgumentException(resource,
+                    String.format("At most %d ids can be looked up at once.", maxBatchSize));
+        }
+
+        List<UUID> misses = new ArrayList<>();
+        List<LookupResult<T>> hits = new ArrayList<>();
+        for (UUID id : distinctIds) {
+            T value = cached.apply(id);
+            if (value != null) {
+                hits.add(found(id, value));
+            } else {
+                misses.add(id);
+            }
+        }
+
+        return Flux.fromIterable(hits)
+                .concatWith(Flux.fromIterable(misses)
+                        .flatMap(id -> remote.apply(id)
+                                .map(value -> found(id, value))
+                                .defaultIfEmpty(notFound(resource, id))
+                                .onErrorResume(e -> Mono.just(failed(resource, id, e))),
+                                parallelism))
+                .collectMap(LookupResult::getId)
+                .map(results -> inRequestOrder(distinctIds, results));
+    }
+
+    private static <T> List<LookupResult<T>> inRequestOrder(
+            Set<UUID> ids,
+            Map<UUID, LookupResult<T>> results) {
+        List<LookupResult<T>> ordered = new ArrayList<>(ids.size());
+        for (UUID id : ids) {
+            ordered.add(results.get(id));
+        }
+        return ordered;
+    }
+
+    static <T> LookupResult<T> found(UUID id, T value) {
+        return LookupResult.<T>builder().id(id).value(value).status(200).build();
+    }
+
+    static <T> LookupResult<T> notFound(Class<T> resource, UUID id) {
+        return LookupResult.<T>builder()
+                .id(id)
+                .status(404)
+                .error(new ResourceNotFoundException(resource, id).getMessage())
+                .build();
+    }
+
+    /**
+     * A 503 when the upstream's circuit breaker or bulkhead turned the call away, a 502 otherwise.
+     */
+    static <T> LookupResult<T> failed(Class<T> resource, UUID id, Throwable e) {
+        if (e instanceof WebClientResponseException.NotFound
+                || e instanceof HttpClientErrorException.NotFound) {
+            return notFound(resource, id);
+        }
+        int status = e instanceof CallNotPermittedException || e instanceof BulkheadFullException ? 503 : 502;
+        return LookupResult.<T>builder().id(id).status(status).error(e.getMessage()).build();
+    }
+}
@@ -0,0 +1,240 @@
+package com.ecore.roles.service.impl;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.JobsConfigurationProperties;
+import com.ecore.roles.model.JobCheckpoint;
+import com.ecore.roles.model.JobStatus;
+import com.ecore.roles.model.JobStatus.State;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.JobCheckpointRepository;
+import com.ecore.roles.service.DefaultRoleBackfillService;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.RolesService;
+import com.ecore.roles.service.TeamsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Gives the default role to team members who have no membership in their team. Teams are walked in
+ * id order in chunks of {@code jobs.default-role-backfill.chunk-size}; every chunk is one existence
+ * query and one batch insert in its own transaction, followed by a checkpoint and a pause. A chunk
+ * that ran but whose checkpoint was not written is simply run again, since members that already
+ * have a membership are skipped.
+ */
+@Log4j2
+@Service
+public class DefaultRoleBackfillServiceImpl implements DefaultRoleBackfillService {
+
+    private final TeamsService teamsService;
+    private final RolesService rolesService;
+    private final MembershipsService membershipsService;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final JobsConfigurationProperties.Backfill properties;
+    private final ExecutorService executor;
+    private final Counter createdCounter;
+    private final Counter processedCounter;
+    private final Timer chunkTimer;
+
+    private volatile JobStatus status = JobStatus.builder().name(JOB_NAME).state(State.IDLE).build();
+    private volatile boolean stopRequested;
+
+    @Autowired
+    public DefaultRoleBackfillServiceImpl(
+            TeamsService teamsService,
+            RolesService rolesService,
+            MembershipsService membershipsService,
+            JobCheckpointRepository jobCheckpointRepository,
+            JobsConfigurationProperties jobsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this.teamsService = teamsService;
+        this.rolesService = rolesService;
+        this.membershipsService = membershipsService;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.properties = jobsConfigurationProperties.getDefaultRoleBackfill();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, JOB_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.createdCounter = Counter.builder("jobs.created")
+                .tag("job", JOB_NAME)
+                .description("Memberships created")
+                .register(meterRegistry);
+        this.processedCounter = Counter.builder("jobs.processed")
+                .tag("job", JOB_NAME)
+                .description("Teams processed")
+                .register(meterRegistry);
+        this.chunkTimer = Timer.builder("jobs.chunk")
+                .tag("job", JOB_NAME)
+                .register(meterRegistry);
+        Gauge.builder("jobs.remaining", this,
+                job -> job.status.getTotalItems() - job.status.getProcessedItems())
+                .tag("job", JOB_NAME)
+                .description("Teams left in the current run")
+                .register(meterRegistry);
+        Gauge.builder("jobs.running", this, job -> job.isActive() ? 1 : 0)
+                .tag("job", JOB_NAME)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public synchronized JobStatus start() {
+        if (!isActive()) {
+            stopRequested = false;
+            status = update(State.RUNNING).error(null).build();
+            executor.execute(this::run);
+        }
+        return status;
+    }
+
+    @Override
+    public synchronized JobStatus stop() {
+        if (isActive()) {
+            stopRequested = true;
+            status = update(State.STOPPING).build();
+        }
+        return status;
+    }
+
+    @Override
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        executor.shutdown();
+    }
+
+    /**
+     * Runs the backfill on the calling thread; {@link #start()} runs it in the background.
+     */
+    public void run() {
+        try {
+            Role role = rolesService.GetDefaultRole();
+            JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                    .filter(previous -> previous.getCompletedAt() == null)
+                    .orElseGet(() -> JobCheckpoint.builder().name(JOB_NAME).build());
+            List<Team> teams = remainingTeams(checkpoint.getLastKey());
+            log.info("Backfilling {} for {} teams after {}", role.getName(), teams.size(),
+                    checkpoint.getLastKey());
+            status = update(State.RUNNING)
+                    .totalItems(checkpoint.getProcessed() + teams.size())
+                    .processedItems(checkpoint.getProcessed())
+                    .created(checkpoint.getCreated())
+                    .lastKey(checkpoint.getLastKey())
+                    .build();
+
+            for (int from = 0; from < teams.size(); from += properties.getChunkSize()) {
+                if (stopRequested) {
+                    status = update(State.STOPPED).build();
+                    log.info("Backfill stopped after {}", checkpoint.getLastKey());
+                    return;
+                }
+                List<Team> chunk =
+                        teams.subList(from, Math.min(from + properties.getChunkSize(), teams.size()));
+                int created = chunkTimer.record(() -> assignWithRetry(role, chunk));
+                checkpoint =
+                        save(checkpoint, chunk.get(chunk.size() - 1).getId(), chunk.size(), created, null);
+                createdCounter.increment(created);
+                processedCounter.increment(chunk.size());
+                status = update(State.RUNNING)
+                        .processedItems(checkpoint.getProcessed())
+                        .created(checkpoint.getCreated())
+                        .lastKey(checkpoint.getLastKey())
+                        .build();
+                if (from + chunk.size() < teams.size()) {
+                    Thread.sleep(properties.getDelayBetweenChunks().toMillis());
+                }
+            }
+            checkpoint = save(checkpoint, checkpoint.getLastKey(), 0, 0, Instant.now());
+            status = update(State.COMPLETED).build();
+            log.info("Backfill completed: {} teams, {} memberships created", checkpoint.getProcessed(),
+                    checkpoint.getCreated());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            status = update(State.STOPPED).build();
+        } catch (RuntimeException e) {
+            log.error("Backfill failed", e);
+            status = update(State.FAILED).error(e.getMessage()).build();
+        }
+    }
+
+    private List<Team> remainingTeams(UUID after) {
+        List<Team> teams = teamsService.getTeams();
+        if (teams == null) {
+            return List.of();
+        }
+        return teams.stream()
+                .filter(Objects::nonNull)
+                .filter(team -> team.getId() != null)
+                .filter(team -> after == null || team.getId().compareTo(after) > 0)
+                .sorted(Comparator.comparing(Team::getId))
+                .collect(Collectors.toList());
+    }
+
+    private int assignWithRetry(Role role, List<Team> chunk) {
+        for (int attempt = 1;; attempt++) {
+            try {
+                List<Membership> created = membershipsService.assignMissingMemberships(role, chunk);
+                return created.size();
+            } catch (DataIntegrityViolationException e) {
+                // a membership of this chunk was created concurrently; the next attempt skips it
+                if (attempt >= properties.getMaxAttempts()) {
+                    throw e;
+                }
+                log.debug("Retrying backfill chunk after a concurrent insert", e);
+            }
+        }
+    }
+
+    private JobCheckpoint save(
+            JobCheckpoint checkpoint,
+            UUID lastKey,
+            int processed,
+            int created,
+            Instant completedAt) {
+        checkpoint.setLastKey(lastKey);
+        checkpoint.setProcessed(checkpoint.getProcessed() + processed);
+        checkpoint.setCreated(checkpoint.getCreated() + created);
+        checkpoint.setUpdatedAt(Instant.now());
+        checkpoint.setCompletedAt(completedAt);
+        return jobCheckpointRepository.save(checkpoint);
+    }
+
+    private JobStatus.JobStatusBuilder update(State state) {
+        JobStatus current = status;
+        return JobStatus.builder()
+                .name(JOB_NAME)
+                .state(state)
+                .totalItems(current.getTotalItems())
+                .processedItems(current.getProcessedItems())
+                .created(current.getCreated())
+                .lastKey(current.getLastKey())
+                .updatedAt(Instant.now())
+                .error(current.getError());
+    }
+
+    private boolean isActive() {
+        State state = status.getState();
+        return state == State.RUNNING || state == State.STOPPING;
+    }
+}
@@ -0,0 +1,303 @@
+package com.ecore.roles.service.impl;
+
+import com.ecore.roles.configuration.JobsConfigurationProperties;
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.model.JobCheckpoint;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipImport;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.JobCheckpointRepository;
+import com.ecore.roles.repository.RoleCatalog;
+import com.ecore.roles.service.MembershipImportService;
+import com.ecore.roles.service.MembershipsService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Streams the uploaded file line by line and never holds more than one batch of it. Every batch is
+ * one transaction that inserts the memberships missing from the database and moves the checkpoint
+ * past the batch's last line, so a checkpoint never counts lines whose memberships were rolled
+ * back. Roles are resolved from a map of the role catalog taken when the import starts, so unknown
+ * role names cost no queries.
+ */
+@Log4j2
+@Service
+public class MembershipImportServiceImpl implements MembershipImportService {
+
+    private static final int MAX_NAME_LENGTH = 64 - CHECKPOINT_PREFIX.length();
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final MembershipsService membershipsService;
+    private final RoleCatalog roleCatalog;
+    private final JobCheckpointRepository jobCheckpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final JobsConfigurationProperties.Import properties;
+    private final Counter createdCounter;
+    private final Counter duplicateCounter;
+    private final Counter invalidCounter;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public MembershipImportServiceImpl(
+            MembershipsService membershipsService,
+            RoleCatalog roleCatalog,
+            JobCheckpointRepository jobCheckpointRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            JobsConfigurationProperties jobsConfigurationProperties,
+            MeterRegistry meterRegistry) {
+        this.membershipsService = membershipsService;
+        this.roleCatalog = roleCatalog;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.properties = jobsConfigurationProperties.getMembershipImport();
+        this.createdCounter = rows(meterRegistry, "created");
+        this.duplicateCounter = rows(meterRegistry, "duplicate");
+        this.invalidCounter = rows(meterRegistry, "invalid");
+    }
+
+    @Override
+    public MembershipImport importMemberships(String name, Format format, InputStream in) {
+        if (name == null || name.isBlank() || name.length() > MAX_NAME_LENGTH) {
+            throw new InvalidArgumentException(MembershipImport.class,
+                    "The name must have between 1 and " + MAX_NAME_LENGTH + " characters.");
+        }
+        if (!running.add(name)) {
+            throw new ResourceExistsException(MembershipImport.class,
+                    "An import named '" + name + "' is already running.");
+        }
+        try {
+            return run(name, format, in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            running.remove(name);
+        }
+    }
+
+    private MembershipImport run(String name, Format format, InputStream in) throws IOException {
+        long started = System.nanoTime();
+        Map<String, Role> roles = roles();
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(CHECKPOINT_PREFIX + name)
+                .filter(previous -> previous.getCompletedAt() == null)
+                .orElseGet(() -> JobCheckpoint.builder().name(CHECKPOINT_PREFIX + name).build());
+        long resumedAfter = checkpoint.getProcessed();
+        Progress progress = new Progress();
+
+        BufferedReader reader =
+                new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), READ_BUFFER_SIZE);
+        List<Membership> batch = new ArrayList<>(properties.getBatchSize());
+        long lineNumber = 0;
+        for (String line; (line = reader.readLine()) != null;) {
+            lineNumber++;
+            if (lineNumber == 1 && line.startsWith("\uFEFF")) {
+                line = line.substring(1);
+            }
+            if (lineNumber <= resumedAfter || line.isBlank()) {
+                continue;
+            }
+            progress.lines++;
+            try {
+                Membership membership = format == Format.CSV
+                        ? parseCsv(line, lineNumber, roles)
+                        : parseNdjson(line, roles);
+                if (membership != null) {
+                    batch.add(membership);
+                }
+            } catch (IllegalArgumentException e) {
+                progress.invalid(lineNumber, e.getMessage(), properties.getMaxReportedErrors());
+                invalidCounter.increment();
+            }
+            if (batch.size() >= properties.getBatchSize()) {
+                checkpoint = write(checkpoint, batch, lineNumber, false, progress);
+                batch = new ArrayList<>(properties.getBatchSize());
+            }
+        }
+        write(checkpoint, batch, lineNumber, true, progress);
+
+        MembershipImport result = MembershipImport.builder()
+                .name(name)
+                .resumedAfterLine(resumedAfter)
+                .linesRead(progress.lines)
+                .created(progress.created)
+                .duplicates(progress.duplicates)
+                .invalid(progress.invalid)
+                .duration(Duration.ofNanos(System.nanoTime() - started))
+                .errors(progress.errors)
+                .build();
+        log.info("Import {} read {} lines at {} rows/s: {} created, {} duplicates, {} invalid", name,
+                result.getLinesRead(), result.getRowsPerSecond(), result.getCreated(), result.getDuplicates(),
+                result.getInvalid());
+        return result;
+    }
+
+    /**
+     * Inserts the batch and moves the checkpoint to {@code lineNumber} in one transaction.
+     */
+    private JobCheckpoint write(
+            JobCheckpoint checkpoint,
+            List<Membership> batch,
+            long lineNumber,
+            boolean last,
+            Progress progress) {
+        for (int attempt = 1;; attempt++) {
+            int[] created = new int[1];
+            try {
+                JobCheckpoint saved = transactionTemplate.execute(status -> {
+                    created[0] = membershipsService.importMemberships(batch).size();
+                    Instant now = Instant.now();
+                    return jobCheckpointRepository.save(JobCheckpoint.builder()
+                            .name(checkpoint.getName())
+                            .processed(lineNumber)
+                            .created(checkpoint.getCreated() + created[0])
+                            .updatedAt(now)
+                            .completedAt(last ? now : null)
+                            .build());
+                });
+                progress.created += created[0];
+                progress.duplicates += batch.size() - created[0];
+                createdCounter.increment(created[0]);
+                duplicateCounter.increment(batch.size() - created[0]);
+                return saved;
+            } catch (DataIntegrityViolationException e) {
+                // a membership of this batch was created concurrently; the next attempt skips it
+                if (attempt >= properties.getMaxAttempts()) {
+                    throw e;
+                }
+                log.debug("Retrying import batch after a concurrent insert", e);
+            }
+        }
+    }
+
+    private Map<String, Role> roles() {
+        Map<String, Role> roles = new HashMap<>();
+        for (Role role : roleCatalog.findAll()) {
+            roles.put(role.getName().toLowerCase(Locale.ROOT), role);
+            roles.put(role.getId().toString(), role);
+        }
+        return roles;
+    }
+
+    /**
+     * Returns null for a header line.
+     */
+    private static Membership parseCsv(String line, long lineNumber, Map<String, Role> roles) {
+        String[] fields = line.split(",", -1);
+        if (fields.length != 3) {
+            throw new IllegalArgumentException("expected userId,teamId,role but found " + fields.length
+                    + " fields");
+        }
+        String userId = unquote(fields[0]);
+        if (lineNumber == 1
+                && (userId.equalsIgnoreCase("userId") || userId.equalsIgnoreCase("teamMemberId"))) {
+            return null;
+        }
+        return membership(userId, unquote(fields[1]), unquote(fields[2]), roles);
+    }
+
+    private Membership parseNdjson(String line, Map<String, Role> roles) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("not a JSON object");
+        }
+        return membership(
+                text(node, "userId", "teamMemberId"),
+                text(node, "teamId", null),
+                text(node, "role", "roleId"),
+                roles);
+    }
+
+    private static Membership membership(String userId, String teamId, String role, Map<String, Role> roles) {
+        Role resolved = roles.get(role.toLowerCase(Locale.ROOT));
+        if (resolved == null) {
+            throw new IllegalArgumentException("unknown role '" + role + "'");
+        }
+        return Membership.builder()
+                .userId(uuid("userId", userId))
+                .teamId(uuid("teamId", teamId))
+                .role(resolved)
+                .build();
+    }
+
+    private static String text(JsonNode node, String field, String alternative) {
+        JsonNode value = node.get(field);
+        if ((value == null || value.isNull()) && alternative != null) {
+            value = node.get(alternative);
+        }
+        if (value == null || !value.isTextual()) {
+            throw new IllegalArgumentException("missing " + field);
+        }
+        return value.asText();
+    }
+
+    private static UUID uuid(String field, String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+    }
+
+    private static String unquote(String field) {
+        String trimmed = field.trim();
+        return trimmed.length() >= 2 && trimmed.startsWith("\"") && trimmed.endsWith("\"")
+                ? trimmed.substring(1, trimmed.length() - 1).trim()
+                : trimmed;
+    }
+
+    private static Counter rows(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("imports.memberships.rows")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static final class Progress {
+
+        private long lines;
+        private long created;
+        private long duplicates;
+        private long invalid;
+        private final List<String> errors = new ArrayList<>();
+
+        private void invalid(long lineNumber, String reason, int maxReported) {
+            invalid++;
+            if (errors.size() < maxReported) {
+                errors.add("line " + lineNumber + ": " + reason);
+            }
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.ecore.roles.service.impl;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.JobsConfigurationProperties;
+import com.ecore.roles.model.JobStatus.State;
+import com.ecore.roles.model.MembershipRef;
+import com.ecore.roles.model.ReconciliationReport;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.MembershipReconciliationService;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.TeamsService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Streams every membership ordered by team on the job thread and hands each team's memberships to a
+ * fixed pool of workers, which look the team up and delete the memberships of users that are no
+ * longer in it. At most {@code jobs.membership-reconciliation.max-queued-teams} teams wait for a
+ * worker, so memory stays bounded however many memberships there are. Teams are looked up through
+ * {@link TeamsService}, the same source that validated the memberships when they were created. A
+ * team it does not return with its members is asked for again straight from the Teams API, and its
+ * memberships are only all removed when that answers that the team does not exist; anything else
+ * counts the team as failed.
+ */
+@Log4j2
+@Service
+public class MembershipReconciliationServiceImpl implements MembershipReconciliationService {
+
+    private static final String THREAD_NAME = "membership-reconciliation-";
+
+    private final MembershipRepository membershipRepository;
+    private final MembershipsService membershipsService;
+    private final TeamsService teamsService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final JobsConfigurationProperties.Reconciliation properties;
+    private final Counter scannedCounter;
+    private final Counter orphansCounter;
+    private final Counter removedCounter;
+    private final Counter failedTeamsCounter;
+    private final ExecutorService executor;
+
+    private volatile Run current;
+
+    @Autowired
+    public MembershipReconciliationServiceImpl(
+            MembershipRepository membershipRepository,
+            MembershipsService membershipsService,
+            TeamsService teamsService,
+            PlatformTransactionManager transactionManager,
+            JobsConfigurationProperties jobsConfigurationProperties,
+            MeterRegistry meterRegistry,
+            @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maximumPoolSize) {
+        checkParallelism(jobsConfigurationProperties.getMembershipReconciliation().getParallelism(),
+                maximumPoolSize);
+        this.membershipRepository = membershipRepository;
+        this.membershipsService = membershipsService;
+        this.teamsService = teamsService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.properties = jobsConfigurationProperties.getMembershipReconciliation();
+        this.scannedCounter = Counter.builder("reconciliation.memberships.scanned").register(meterRegistry);
+        this.orphansCounter = Counter.builder("reconciliation.orphans.found").register(meterRegistry);
+        this.removedCounter = Counter.builder("reconciliation.orphans.removed").register(meterRegistry);
+        this.failedTeamsCounter = Counter.builder("reconciliation.teams.failed")
+                .description("Teams skipped because their lookup or delete failed")
+                .register(meterRegistry);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, JOB_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The scan and every worker hold a connection of the primary pool, and the job may take at most
+     * half of it so that requests keep the rest.
+     */
+    private static void checkParallelism(int parallelism, int maximumPoolSize) {
+        int allowed = maximumPoolSize / 2 - 1;
+        if (parallelism < 1 || parallelism > allowed) {
+            throw new IllegalStateException(format(
+                    "jobs.membership-reconciliation.parallelism is %d, but with "
+                            + "spring.datasource.hikari.maximum-pool-size at %d it must be between 1 and %d: the scan "
+                            + "and every worker hold a connection, and the job may take at most half of the pool",
+                    parallelism, maximumPoolSize, allowed));
+        }
+    }
+
+    @Override
+    public synchronized ReconciliationReport start(boolean dryRun) {
+        if (!isActive()) {
+            Run run = new Run(dryRun);
+            current = run;
+            executor.execute(() -> execute(run));
+        }
+        return current.report();
+    }
+
+    @Override
+    public synchronized ReconciliationReport stop() {
+        if (isActive()) {
+            current.state = State.STOPPING;
+        }
+        return getStatus();
+    }
+
+    @Override
+    public ReconciliationReport getStatus() {
+        Run run = current;
+        return run == null
+                ? ReconciliationReport.builder().state(State.IDLE).duration(Duration.ZERO).orphans(List.of())
+                        .build()
+                : run.report();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stop();
+        executor.shutdown();
+    }
+
+    /**
+     * Runs a reconciliation on the calling thread; {@link #start(boolean)} runs it in the background.
+     */
+    public ReconciliationReport reconcile(boolean dryRun) {
+        Run run = new Run(dryRun);
+        execute(run);
+        return run.report();
+    }
+
+    private void execute(Run run) {
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(properties.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME + threads.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        Semaphore queued = new Semaphore(properties.getMaxQueuedTeams());
+        String error = null;
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> scan(run, workers, queued));
+        } catch (RuntimeException e) {
+            log.error("Membership reconciliation failed", e);
+            error = e.getMessage();
+        } finally {
+            awaitWorkers(workers);
+        }
+        finish(run, error);
+        log.info("Reconciled {} memberships of {} teams in {}: {} orphans, {} removed, {} teams failed, {}",
+                run.memberships, run.teams, run.duration, run.orphansFound, run.orphansRemoved,
+                run.teamsFailed,
+                run.state);
+    }
+
+    private synchronized void finish(Run run, String error) {
+        run.duration = Duration.ofNanos(System.nanoTime() - run.started);
+        run.error = error;
+        if (error != null) {
+            run.state = State.FAILED;
+        } else {
+            run.state = run.state == State.STOPPING ? State.STOPPED : State.COMPLETED;
+        }
+    }
+
+    private boolean isActive() {
+        Run run = current;
+        return run != null && (run.state == State.RUNNING || run.state == State.STOPPING);
+    }
+
+    private void scan(Run run, ExecutorService workers, Semaphore queued) {
+        try (Stream<MembershipRef> memberships = membershipRepository.streamRefsOrderByTeamId()) {
+            List<MembershipRef> team = new ArrayList<>();
+            for (Iterator<MembershipRef> it = memberships.iterator(); it.hasNext();) {
+                MembershipRef membership = it.next();
+                if (!team.isEmpty() && !team.get(0).getTeamId().equals(membership.getTeamId())) {
+                    if (run.state == State.STOPPING) {
+                        return;
+                    }
+                    submit(run, team, workers, queued);
+                    team = new ArrayList<>();
+                }
+                team.add(membership);
+            }
+            if (!team.isEmpty() && run.state != State.STOPPING) {
+                submit(run, team, workers, queued);
+            }
+        }
+    }
+
+    private void submit(Run run, List<MembershipRef> team, ExecutorService workers, Semaphore queued) {
+        queued.acquireUninterruptibly();
+        try {
+            workers.execute(() -> {
+                try {
+                    reconcileTeam(run, team);
+                } finally {
+                    queued.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queued.release();
+            throw e;
+        }
+    }
+
+    private void reconcileTeam(Run run, List<MembershipRef> memberships) {
+        UUID teamId = memberships.get(0).getTeamId();
+        run.teams.increment();
+        run.memberships.add(memberships.size());
+        scannedCounter.increment(memberships.size());
+        try {
+            Set<UUID> members = members(teamId);
+            List<MembershipRef> orphans = memberships.stream()
+                    .filter(membership -> !members.contains(membership.getUserId()))
+                    .collect(toList());
+            if (orphans.isEmpty()) {
+                return;
+            }
+            run.found(orphans, properties.getMaxReportedOrphans());
+            orphansCounter.increment(orphans.size());
+            if (run.dryRun) {
+                return;
+            }
+            for (int from = 0; from < orphans.size(); from += properties.getDeleteBatchSize()) {
+                int removed = membershipsService.removeMemberships(
+                        orphans.subList(from,
+                                Math.min(from + properties.getDeleteBatchSize(), orphans.size())));
+                run.orphansRemoved.add(removed);
+                removedCounter.increment(removed);
+            }
+        } catch (RuntimeException e) {
+            run.teamsFailed.increment();
+            failedTeamsCounter.increment();
+            log.warn("Could not reconcile the memberships of team {}", teamId, e);
+        }
+    }
+
+    private Set<UUID> members(UUID teamId) {
+        Team team = teamsService.getTeam(teamId);
+        if (team == null || team.getTeamMemberIds() == null) {
+            // the cache and the mirror answer null for more than a deleted team
+            team = teamsService.fetchTeam(teamId).orElse(null);
+            if (team == null) {
+                return Set.of();
+            }
+        }
+        return new HashSet<>(Objects.requireNonNull(team.getTeamMemberIds(),
+                "Teams API returned no members for team " + teamId));
+    }
+
+    private static void awaitWorkers(ExecutorService workers) {
+        workers.shutdown();
+        try {
+            while (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.info("Waiting for membership reconciliation workers to finish");
+            }
+        } catch (InterruptedException e) {
+            workers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Run {
+
+        private final boolean dryRun;
+        private final long started = System.nanoTime();
+        private final LongAdder teams = new LongAdder();
+        private final LongAdder memberships = new LongAdder();
+        private final LongAdder orphansFound = new LongAdder();
+        private final LongAdder orphansRemoved = new LongAdder();
+        private final LongAdder teamsFailed = new LongAdder();
+        private final List<MembershipRef> orphans = Collections.synchronizedList(new ArrayList<>());
+        private volatile State state = State.RUNNING;
+        private volatile Duration duration;
+        private volatile String error;
+
+        private Run(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        private void found(List<MembershipRef> teamOrphans, int maxReported) {
+            orphansFound.add(teamOrphans.size());
+            synchronized (orphans) {
+                for (int i = 0; i < teamOrphans.size() && orphans.size() < maxReported; i++) {
+                    orphans.add(teamOrphans.get(i));
+                }
+            }
+        }
+
+        private ReconciliationReport report() {
+            Duration finished = duration;
+            List<MembershipRef> reported;
+            synchronized (orphans) {
+                reported = List.copyOf(orphans);
+            }
+            return ReconciliationReport.builder()
+                    .state(state)
+                    .dryRun(dryRun)
+                    .teamsScanned(teams.sum())
+                    .membershipsScanned(memberships.sum())
+                    .orphansFound(orphansFound.sum())
+                    .orphansRemoved(orphansRemoved.sum())
+                    .teamsFailed(teamsFailed.sum())
+                    .duration(finished != null ? finished : Duration.ofNanos(System.nanoTime() - started))
+                    .orphans(reported)
+                    .error(error)
+                    .build();
+        }
+    }
+}
@@ -1,55 +1,345 @@
 package com.ecore.roles.service.impl;
 
+import com.ecore.roles.client.model.Team;
 import com.ecore.roles.exception.InvalidArgumentException;
 import com.ecore.roles.exception.ResourceExistsException;
 import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.AuditEvent;
+import com.ecore.roles.model.LookupResult;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipKey;
+import com.ecore.roles.model.MembershipRef;
+import com.ecore.roles.model.MembershipResult;
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.AuditLog;
+import com.ecore.roles.repository.DataVersions;
+import com.ecore.roles.repository.MembershipBatchInserter;
+import com.ecore.roles.repository.MembershipExporter;
+import com.ecore.roles.repository.MembershipIndex;
 import com.ecore.roles.repository.MembershipRepository;
-import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.repository.RoleCatalog;
 import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.TeamsService;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import static com.ecore.roles.repository.DataVersions.Dataset.MEMBERSHIPS;
 import static java.util.Optional.ofNullable;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toSet;
 
 @Log4j2
 @Service
 public class MembershipsServiceImpl implements MembershipsService {
 
     private final MembershipRepository membershipRepository;
-    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
+    private final TeamsService teamsService;
+    private final DataVersions dataVersions;
+    private final MembershipIndex membershipIndex;
+    private final AuditLog auditLog;
+    private final MembershipExporter membershipExporter;
+    private final MembershipBatchInserter membershipBatchInserter;
+    private final TransactionOperations transactionOperations;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Autowired
     public MembershipsServiceImpl(
             MembershipRepository membershipRepository,
-            RoleRepository roleRepository) {
+            RoleCatalog roleCatalog,
+            TeamsService teamsService,
+            DataVersions dataVersions,
+            MembershipIndex membershipIndex,
+            AuditLog auditLog,
+            MembershipExporter membershipExporter,
+            MembershipBatchInserter membershipBatchInserter,
+            TransactionOperations transactionOperations) {
         this.membershipRepository = membershipRepository;
-        this.roleRepository = roleRepository;
+        this.roleCatalog = roleCatalog;
+        this.teamsService = teamsService;
+        this.dataVersions = dataVersions;
+        this.membershipIndex = membershipIndex;
+        this.auditLog = auditLog;
+        this.membershipExporter = membershipExporter;
+        this.membershipBatchInserter = membershipBatchInserter;
+        this.transactionOperations = transactionOperations;
     }
 
+    /**
+     * The role and the team are checked before the transaction is opened, so no connection is held
+     * during the Teams API call.
+     */
     @Override
     public Membership assignRoleToMembership(@NonNull Membership m) {
 
         UUID roleId = ofNullable(m.getRole()).map(Role::getId)
                 .orElseThrow(() -> new InvalidArgumentException(Role.class));
 
-        if (membershipRepository.findByUserIdAndTeamId(m.getUserId(), m.getTeamId())
-                .isPresent()) {
-            throw new ResourceExistsException(Membership.class);
+        roleCatalog.findById(roleId).orElseThrow(() -> new ResourceNotFoundException(Role.class, roleId));
+        validateTeamMember(m.getUserId(), m.getTeamId());
+        return transactionOperations.execute(status -> {
+            if (membershipRepository.findByUserIdAndTeamId(m.getUserId(), m.getTeamId())
+                    .isPresent()) {
+                throw new ResourceExistsException(Membership.class);
+            }
+            Membership saved = membershipRepository.save(m);
+            dataVersions.changed(MEMBERSHIPS);
+            membershipIndex.added(saved);
+            auditLog.record(AuditEvent.membershipCreated(saved));
+            return saved;
+        });
+    }
+
+    /**
+     * Teams are looked up before the transaction is opened, so no connection is held during upstream
+     * calls, and a team that cannot be looked up fails only the memberships in it.
+     */
+    @Override
+    public List<MembershipResult> assignRolesToMemberships(@NonNull List<Membership> memberships) {
+        Map<UUID, LookupResult<Team>> teams = lookupTeams(memberships);
+        return transactionOperations.execute(status -> assignRolesToMemberships(memberships, teams));
+    }
+
+    private List<MembershipResult> assignRolesToMemberships(
+            List<Membership> memberships,
+            Map<UUID, LookupResult<Team>> teams) {
+        Set<UUID> roleIds = memberships.stream()
+                .filter(Objects::nonNull)
+                .map(Membership::getRole)
+                .filter(Objects::nonNull)
+                .map(Role::getId)
+                .filter(Objects::nonNull)
+                .collect(toSet());
+        Map<UUID, Role> roles = roleCatalog.findAllById(roleIds);
+        Set<MembershipKey> existing = new HashSet<>(membershipRepository.findKeysByTeamIdInAndUserIdIn(
+                memberships.stream().filter(Objects::nonNull).map(Membership::getTeamId).collect(toSet()),
+                memberships.stream().filter(Objects::nonNull).map(Membership::getUserId).collect(toSet())));
+
+        List<MembershipResult> results = new ArrayList<>(memberships.size());
+        List<Membership> accepted = new ArrayList<>(memberships.size());
+        for (Membership m : memberships) {
+            try {
+                Role role = validateBulkMembership(m, roles, existing);
+                LookupResult<Team> team = teams.get(m.getTeamId());
+                if (!team.isSuccess()) {
+                    results.add(MembershipResult.builder().status(team.getStatus()).error(team.getError())
+                            .build());
+                    continue;
+                }
+                validateTeamMember(m.getUserId(), team.getValue());
+                m.setRole(role);
+                m.setId(null);
+                existing.add(MembershipKey.of(m));
+                accepted.add(m);
+                results.add(MembershipResult.builder().membership(m).status(201).build());
+            } catch (InvalidArgumentException | ResourceExistsException e) {
+                results.add(MembershipResult.builder().status(400).error(e.getMessage()).build());
+            } catch (ResourceNotFoundException e) {
+                results.add(MembershipResult.builder().status(404).error(e.getMessage()).build());
+            }
+        }
+        saveAll(accepted);
+        return results;
+    }
+
+    @Override
+    @Transactional
+    public List<Membership> assignMissingMemberships(@NonNull Role role, @NonNull List<Team> teams) {
+        Set<UUID> teamIds = new HashSet<>();
+        Set<UUID> userIds = new HashSet<>();
+        for (Team team : teams) {
+            if (team.getTeamMemberIds() != null && !team.getTeamMemberIds().isEmpty()) {
+                teamIds.add(team.getId());
+                userIds.addAll(team.getTeamMemberIds());
+            }
+        }
+        if (teamIds.isEmpty()) {
+            return List.of();
+        }
+        Set<MembershipKey> existing =
+                new HashSet<>(membershipRepository.findKeysByTeamIdInAndUserIdIn(teamIds, userIds));
+
+        List<Membership> missing = new ArrayList<>();
+        for (Team team : teams) {
+            if (team.getTeamMemberIds() == null) {
+                continue;
+            }
+            for (UUID userId : team.getTeamMemberIds()) {
+                if (userId != null && existing.add(new MembershipKey(team.getId(), userId))) {
+                    missing.add(Membership.builder().role(role).teamId(team.getId()).userId(userId).build());
+                }
+            }
+        }
+        saveAll(missing);
+        return missing;
+    }
+
+    @Override
+    @Transactional
+    public List<Membership> importMemberships(@NonNull List<Membership> memberships) {
+        if (memberships.isEmpty()) {
+            return List.of();
         }
+        Set<MembershipKey> existing = new HashSet<>(membershipRepository.findKeysByTeamIdInAndUserIdIn(
+                memberships.stream().map(Membership::getTeamId).collect(toSet()),
+                memberships.stream().map(Membership::getUserId).collect(toSet())));
 
-        roleRepository.findById(roleId).orElseThrow(() -> new ResourceNotFoundException(Role.class, roleId));
-        return membershipRepository.save(m);
+        List<Membership> missing = new ArrayList<>();
+        for (Membership m : memberships) {
+            if (existing.add(MembershipKey.of(m))) {
+                m.setId(UUID.randomUUID());
+                missing.add(m);
+            }
+        }
+        membershipBatchInserter.insert(missing);
+        publish(missing);
+        return missing;
     }
 
     @Override
+    @Transactional
+    public int removeMemberships(@NonNull Collection<MembershipRef> memberships) {
+        if (memberships.isEmpty()) {
+            return 0;
+        }
+        int removed = membershipRepository.deleteByIdIn(
+                memberships.stream().map(MembershipRef::getId).collect(toList()));
+        dataVersions.changed(MEMBERSHIPS);
+        membershipIndex.removed(memberships.stream().map(MembershipRef::toKey).collect(toList()));
+        auditLog.record(memberships.stream().map(AuditEvent::membershipDeleted).collect(toList()));
+        return removed;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Membership> getMemberships(@NonNull UUID rid) {
         return membershipRepository.findByRoleId(rid);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Membership> getMemberships(@NonNull UUID rid, UUID after, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+        return after == null
+                ? membershipRepository.findPageByRoleId(rid, page)
+                : membershipRepository.findPageByRoleIdAfter(rid, after, page);
+    }
+
+    @Override
+    @Transactional
+    public void streamMemberships(@NonNull UUID rid, @NonNull Consumer<Membership> consumer) {
+        try (Stream<Membership> memberships = membershipRepository.streamByRoleId(rid)) {
+            memberships.forEach(m -> {
+                consumer.accept(m);
+                // keeps the persistence context from growing with the result set
+                entityManager.detach(m);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportMemberships(UUID roleId, UUID teamId, @NonNull OutputStream out) {
+        return membershipExporter.export(roleId, teamId, out);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Membership> getUserMemberships(@NonNull UUID uid) {
+        return membershipRepository.findByUserId(uid);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Membership> getTeamMemberships(@NonNull UUID tid) {
+        return membershipRepository.findByTeamId(tid);
+    }
+
+    @Override
+    public boolean hasRole(@NonNull UUID uid, @NonNull UUID tid, @NonNull UUID rid) {
+        return membershipIndex.hasRole(uid, tid, rid);
+    }
+
+    private void saveAll(List<Membership> memberships) {
+        if (memberships.isEmpty()) {
+            return;
+        }
+        membershipRepository.saveAll(memberships);
+        publish(memberships);
+    }
+
+    private void publish(List<Membership> memberships) {
+        if (memberships.isEmpty()) {
+            return;
+        }
+        dataVersions.changed(MEMBERSHIPS);
+        membershipIndex.added(memberships);
+        auditLog.record(memberships.stream().map(AuditEvent::membershipCreated).collect(toList()));
+    }
+
+    private Role validateBulkMembership(Membership m, Map<UUID, Role> roles, Set<MembershipKey> existing) {
+        if (m == null || m.getUserId() == null || m.getTeamId() == null) {
+            throw new InvalidArgumentException(Membership.class);
+        }
+        UUID roleId = ofNullable(m.getRole()).map(Role::getId)
+                .orElseThrow(() -> new InvalidArgumentException(Role.class));
+        if (existing.contains(MembershipKey.of(m))) {
+            throw new ResourceExistsException(Membership.class);
+        }
+        return ofNullable(roles.get(roleId))
+                .orElseThrow(() -> new ResourceNotFoundException(Role.class, roleId));
+    }
+
+    private Map<UUID, LookupResult<Team>> lookupTeams(List<Membership> memberships) {
+        Map<UUID, LookupResult<Team>> teams = new HashMap<>();
+        for (Membership m : memberships) {
+            if (m != null && m.getTeamId() != null) {
+                teams.computeIfAbsent(m.getTeamId(), this::lookupTeam);
+            }
+        }
+        return teams;
+    }
+
+    private LookupResult<Team> lookupTeam(UUID teamId) {
+        try {
+            Team team = teamsService.getTeam(teamId);
+            return team == null ? BatchLookup.notFound(Team.class, teamId) : BatchLookup.found(teamId, team);
+        } catch (RuntimeException e) {
+            return BatchLookup.failed(Team.class, teamId, e);
+        }
+    }
+
+    private void validateTeamMember(UUID userId, UUID teamId) {
+        validateTeamMember(userId, ofNullable(teamsService.getTeam(teamId))
+                .orElseThrow(() -> new ResourceNotFoundException(Team.class, teamId)));
+    }
+
+    private static void validateTeamMember(UUID userId, Team team) {
+        if (team.getTeamMemberIds() == null || !team.getTeamMemberIds().contains(userId)) {
+            throw new InvalidArgumentException(Membership.class,
+                    "The provided user doesn't belong to the provided team.");
+        }
+    }
 }
@@ -2,15 +2,19 @@ package com.ecore.roles.service.impl;
 
 import com.ecore.roles.exception.ResourceExistsException;
 import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.AuditEvent;
+import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.AuditLog;
 import com.ecore.roles.repository.MembershipRepository;
-import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.repository.RoleCatalog;
 import com.ecore.roles.service.MembershipsService;
 import com.ecore.roles.service.RolesService;
 import lombok.NonNull;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.UUID;
@@ -21,41 +25,56 @@ public class RolesServiceImpl implements RolesService {
 
     public static final String DEFAULT_ROLE = "Developer";
 
-    private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
     private final MembershipRepository membershipRepository;
     private final MembershipsService membershipsService;
+    private final AuditLog auditLog;
 
     @Autowired
     public RolesServiceImpl(
-            RoleRepository roleRepository,
+            RoleCatalog roleCatalog,
             MembershipRepository membershipRepository,
-            MembershipsService membershipsService) {
-        this.roleRepository = roleRepository;
+            MembershipsService membershipsService,
+            AuditLog auditLog) {
+        this.roleCatalog = roleCatalog;
         this.membershipRepository = membershipRepository;
         this.membershipsService = membershipsService;
+        this.auditLog = auditLog;
     }
 
     @Override
+    @Transactional
     public Role CreateRole(@NonNull Role r) {
-        if (roleRepository.findByName(r.getName()).isPresent()) {
+        if (roleCatalog.findByName(r.getName()).isPresent()) {
             throw new ResourceExistsException(Role.class);
         }
-        return roleRepository.save(r);
+        Role saved = roleCatalog.save(r);
+        auditLog.record(AuditEvent.roleCreated(saved));
+        return saved;
     }
 
     @Override
     public Role GetRole(@NonNull UUID rid) {
-        return roleRepository.findById(rid)
+        return roleCatalog.findById(rid)
                 .orElseThrow(() -> new ResourceNotFoundException(Role.class, rid));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Role GetRole(@NonNull UUID uid, @NonNull UUID tid) {
+        return membershipRepository.findByUserIdAndTeamId(uid, tid)
+                .map(Membership::getRole)
+                .orElseThrow(() -> new ResourceNotFoundException(Membership.class, uid, tid));
+    }
+
     @Override
     public List<Role> GetRoles() {
-        return roleRepository.findAll();
+        return roleCatalog.findAll();
     }
 
-    private Role getDefaultRole() {
-        return roleRepository.findByName(DEFAULT_ROLE)
+    @Override
+    public Role GetDefaultRole() {
+        return roleCatalog.findByName(DEFAULT_ROLE)
                 .orElseThrow(() -> new IllegalStateException("Default role is not configured"));
     }
 }
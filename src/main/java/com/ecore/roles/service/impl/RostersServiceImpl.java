@@ -0,0 +1,126 @@
+package com.ecore.roles.service.impl;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.LookupResult;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.TeamRoster;
+import com.ecore.roles.model.TeamRosterMember;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.service.RostersService;
+import com.ecore.roles.service.TeamsService;
+import com.ecore.roles.service.UsersService;
+import lombok.NonNull;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.service.UsersService.MAX_BATCH_SIZE;
+
+@Service
+public class RostersServiceImpl implements RostersService {
+
+    private final TeamsService teamsService;
+    private final UsersService usersService;
+    private final MembershipsService membershipsService;
+    private final Scheduler blockingScheduler;
+
+    @Autowired
+    public RostersServiceImpl(
+            TeamsService teamsService,
+            UsersService usersService,
+            MembershipsService membershipsService,
+            Scheduler blockingScheduler) {
+        this.teamsService = teamsService;
+        this.usersService = usersService;
+        this.membershipsService = membershipsService;
+        this.blockingScheduler = blockingScheduler;
+    }
+
+    /**
+     * The memberships query runs alongside the team and user lookups, so the roster takes roughly as
+     * long as the team lookup followed by the slowest user lookup.
+     */
+    @Override
+    public Mono<TeamRoster> getTeamRoster(@NonNull UUID teamId) {
+        Mono<List<Membership>> memberships = Mono
+                .fromCallable(() -> membershipsService.getTeamMemberships(teamId))
+                .subscribeOn(blockingScheduler);
+
+        Mono<TeamRoster> teamWithUsers = teamsService.getTeamAsync(teamId)
+                .onErrorMap(WebClientResponseException.NotFound.class,
+                        e -> new ResourceNotFoundException(Team.class, teamId))
+                .switchIfEmpty(Mono.error(() -> new ResourceNotFoundException(Team.class, teamId)))
+                .flatMap(team -> lookupUsers(memberIds(team))
+                        .map(users -> toRoster(team, users)));
+
+        return Mono.zip(teamWithUsers, memberships, this::withRoles);
+    }
+
+    /**
+     * Looks the members up in batches of at most {@link UsersService#MAX_BATCH_SIZE}, one batch after
+     * the other, so large teams stay within the batch limit and its parallelism.
+     */
+    private Mono<List<LookupResult<User>>> lookupUsers(List<UUID> userIds) {
+        List<UUID> distinctIds = new ArrayList<>(new LinkedHashSet<>(userIds));
+        int batches = (distinctIds.size() + MAX_BATCH_SIZE - 1) / MAX_BATCH_SIZE;
+        return Flux.range(0, batches)
+                .concatMap(batch -> usersService.lookupUsers(distinctIds.subList(
+                        batch * MAX_BATCH_SIZE,
+                        Math.min(distinctIds.size(), (batch + 1) * MAX_BATCH_SIZE))))
+                .concatMapIterable(Function.identity())
+                .collectList();
+    }
+
+    private static List<UUID> memberIds(Team team) {
+        return team.getTeamMemberIds() == null
+                ? List.of()
+                : team.getTeamMemberIds().stream().filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static TeamRoster toRoster(Team team, List<LookupResult<User>> users) {
+        List<TeamRosterMember> members = new ArrayList<>(users.size());
+        for (LookupResult<User> user : users) {
+            members.add(TeamRosterMember.builder()
+                    .userId(user.getId())
+                    .teamLead(user.getId().equals(team.getTeamLeadId()))
+                    .user(user.getValue())
+                    .error(user.getError())
+                    .build());
+        }
+        return new TeamRoster(team, members);
+    }
+
+    private TeamRoster withRoles(TeamRoster roster, List<Membership> memberships) {
+        Map<UUID, Membership> byUserId = memberships.stream()
+                .collect(Collectors.toMap(Membership::getUserId, Function.identity()));
+        List<TeamRosterMember> members = roster.getMembers().stream()
+                .map(member -> {
+                    Membership membership = byUserId.get(member.getUserId());
+                    return membership == null
+                            ? member
+                            : TeamRosterMember.builder()
+                                    .userId(member.getUserId())
+                                    .teamLead(member.isTeamLead())
+                                    .user(member.getUser())
+                                    .role(membership.getRole())
+                                    .error(member.getError())
+                                    .build();
+                })
+                .collect(Collectors.toList());
+        return new TeamRoster(roster.getTeam(), members);
+    }
+}
@@ -1,29 +1,99 @@
 package com.ecore.roles.service.impl;
 
+import com.ecore.roles.client.ClientsMirror;
+import com.ecore.roles.client.MirrorSnapshot;
+import com.ecore.roles.client.ReactiveTeamsClient;
 import com.ecore.roles.client.TeamsClient;
 import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.model.LookupResult;
 import com.ecore.roles.service.TeamsService;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class TeamsServiceImpl implements TeamsService {
 
     private final TeamsClient teamsClient;
+    private final ReactiveTeamsClient reactiveTeamsClient;
+    private final LoadingCache<UUID, Team> teamsCache;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final ClientsMirror clientsMirror;
 
     @Autowired
-    public TeamsServiceImpl(TeamsClient teamsClient) {
+    public TeamsServiceImpl(
+            TeamsClient teamsClient,
+            ReactiveTeamsClient reactiveTeamsClient,
+            LoadingCache<UUID, Team> teamsCache,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            ClientsMirror clientsMirror) {
         this.teamsClient = teamsClient;
+        this.reactiveTeamsClient = reactiveTeamsClient;
+        this.teamsCache = teamsCache;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.clientsMirror = clientsMirror;
     }
 
+    // concurrent misses for the same id block on a single upstream call and share its result
     public Team getTeam(UUID id) {
-        return teamsClient.getTeam(id).getBody();
+        Optional<MirrorSnapshot<Team>> mirror = clientsMirror.teams();
+        if (mirror.isPresent()) {
+            return mirror.get().get(id);
+        }
+        return teamsCache.get(id);
+    }
+
+    public Optional<Team> fetchTeam(UUID id) {
+        try {
+            return Optional.of(Objects.requireNonNull(teamsClient.getTeam(id).getBody(),
+                    "Teams API returned no body"));
+        } catch (HttpClientErrorException.NotFound e) {
+            return Optional.empty();
+        }
     }
 
     public List<Team> getTeams() {
-        return teamsClient.getTeams().getBody();
+        return clientsMirror.teams()
+                .map(MirrorSnapshot::getAll)
+                .orElseGet(() -> teamsClient.getTeams().getBody());
+    }
+
+    public Mono<Team> getTeamAsync(UUID id) {
+        Optional<MirrorSnapshot<Team>> mirror = clientsMirror.teams();
+        if (mirror.isPresent()) {
+            return Mono.justOrEmpty(mirror.get().get(id));
+        }
+        Team cached = teamsCache.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveTeamsClient.getTeam(id)
+                .doOnNext(team -> teamsCache.put(id, team));
+    }
+
+    public Flux<Team> getTeamsAsync() {
+        return clientsMirror.teams()
+                .map(snapshot -> Flux.fromIterable(snapshot.getAll()))
+                .orElseGet(reactiveTeamsClient::getTeams);
+    }
+
+    public Mono<List<LookupResult<Team>>> lookupTeams(List<UUID> ids) {
+        return BatchLookup.lookup(
+                Team.class,
+                ids,
+                MAX_BATCH_SIZE,
+                clientsConfigurationProperties.getBatchParallelism(),
+                id -> clientsMirror.teams().map(snapshot -> snapshot.get(id))
+                        .orElseGet(() -> teamsCache.getIfPresent(id)),
+                this::getTeamAsync);
     }
 }
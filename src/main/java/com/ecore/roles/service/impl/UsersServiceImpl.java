@@ -1,29 +1,87 @@
 package com.ecore.roles.service.impl;
 
+import com.ecore.roles.client.ClientsMirror;
+import com.ecore.roles.client.MirrorSnapshot;
+import com.ecore.roles.client.ReactiveUsersClient;
 import com.ecore.roles.client.UsersClient;
 import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.model.LookupResult;
 import com.ecore.roles.service.UsersService;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
 public class UsersServiceImpl implements UsersService {
 
     private final UsersClient usersClient;
+    private final ReactiveUsersClient reactiveUsersClient;
+    private final LoadingCache<UUID, User> usersCache;
+    private final ClientsConfigurationProperties clientsConfigurationProperties;
+    private final ClientsMirror clientsMirror;
 
     @Autowired
-    public UsersServiceImpl(UsersClient usersClient) {
+    public UsersServiceImpl(
+            UsersClient usersClient,
+            ReactiveUsersClient reactiveUsersClient,
+            LoadingCache<UUID, User> usersCache,
+            ClientsConfigurationProperties clientsConfigurationProperties,
+            ClientsMirror clientsMirror) {
         this.usersClient = usersClient;
+        this.reactiveUsersClient = reactiveUsersClient;
+        this.usersCache = usersCache;
+        this.clientsConfigurationProperties = clientsConfigurationProperties;
+        this.clientsMirror = clientsMirror;
     }
 
     public User getUser(UUID id) {
-        return usersClient.getUser(id).getBody();
+        Optional<MirrorSnapshot<User>> mirror = clientsMirror.users();
+        if (mirror.isPresent()) {
+            return mirror.get().get(id);
+        }
+        return usersCache.get(id);
     }
 
     public List<User> getUsers() {
-        return usersClient.getUsers().getBody();
+        return clientsMirror.users()
+                .map(MirrorSnapshot::getAll)
+                .orElseGet(() -> usersClient.getUsers().getBody());
+    }
+
+    public Mono<User> getUserAsync(UUID id) {
+        Optional<MirrorSnapshot<User>> mirror = clientsMirror.users();
+        if (mirror.isPresent()) {
+            return Mono.justOrEmpty(mirror.get().get(id));
+        }
+        User cached = usersCache.getIfPresent(id);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return reactiveUsersClient.getUser(id)
+                .doOnNext(user -> usersCache.put(id, user));
+    }
+
+    public Flux<User> getUsersAsync() {
+        return clientsMirror.users()
+                .map(snapshot -> Flux.fromIterable(snapshot.getAll()))
+                .orElseGet(reactiveUsersClient::getUsers);
+    }
+
+    public Mono<List<LookupResult<User>>> lookupUsers(List<UUID> ids) {
+        return BatchLookup.lookup(
+                User.class,
+                ids,
+                MAX_BATCH_SIZE,
+                clientsConfigurationProperties.getBatchParallelism(),
+                id -> clientsMirror.users().map(snapshot -> snapshot.get(id))
+                        .orElseGet(() -> usersCache.getIfPresent(id)),
+                this::getUserAsync);
     }
 }
@@ -0,0 +1,22 @@
+package com.ecore.roles.web;
+
+import com.ecore.roles.web.dto.JobStatusDto;
+import com.ecore.roles.web.dto.ReconciliationReportDto;
+import org.springframework.http.ResponseEntity;
+
+public interface JobsApi {
+
+    ResponseEntity<JobStatusDto> startDefaultRoleBackfill();
+
+    ResponseEntity<JobStatusDto> stopDefaultRoleBackfill();
+
+    ResponseEntity<JobStatusDto> getDefaultRoleBackfill();
+
+    ResponseEntity<ReconciliationReportDto> startMembershipReconciliation(
+            boolean dryRun);
+
+    ResponseEntity<ReconciliationReportDto> stopMembershipReconciliation();
+
+    ResponseEntity<ReconciliationReportDto> getMembershipReconciliation();
+
+}
@@ -1,8 +1,14 @@
 package com.ecore.roles.web;
 
+import com.ecore.roles.web.dto.MembershipCheckDto;
 import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.MembershipImportDto;
+import com.ecore.roles.web.dto.MembershipResultDto;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
 
@@ -11,7 +17,37 @@ public interface MembershipsApi {
     ResponseEntity<MembershipDto> assignRoleToMembership(
             MembershipDto membership);
 
+    ResponseEntity<List<MembershipResultDto>> assignRolesToMemberships(
+            List<MembershipDto> memberships);
+
+    ResponseEntity<MembershipImportDto> importMemberships(
+            String name,
+            String contentType,
+            String contentEncoding,
+            InputStream body) throws IOException;
+
     ResponseEntity<List<MembershipDto>> getMemberships(
+            UUID roleId,
+            UUID after,
+            Integer limit,
+            String ifNoneMatch);
+
+    ResponseEntity<StreamingResponseBody> streamMemberships(
+            UUID roleId,
+            String ifNoneMatch);
+
+    ResponseEntity<StreamingResponseBody> exportMemberships(
+            UUID roleId,
+            UUID teamId,
+            String acceptEncoding);
+
+    ResponseEntity<List<MembershipDto>> getUserMemberships(
+            UUID userId,
+            String ifNoneMatch);
+
+    ResponseEntity<MembershipCheckDto> checkMembership(
+            UUID userId,
+            UUID teamId,
             UUID roleId);
 
 }
@@ -11,9 +11,15 @@ public interface RolesApi {
     ResponseEntity<RoleDto> createRole(
             RoleDto role);
 
-    ResponseEntity<List<RoleDto>> getRoles();
+    ResponseEntity<List<RoleDto>> getRoles(
+            String ifNoneMatch);
 
     ResponseEntity<RoleDto> getRole(
-            UUID roleId);
+            UUID roleId,
+            String ifNoneMatch);
+
+    ResponseEntity<RoleDto> getRole(
+            UUID userId,
+            UUID teamId);
 
 }
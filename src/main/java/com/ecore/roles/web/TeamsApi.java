@@ -1,7 +1,10 @@
 package com.ecore.roles.web;
 
 import com.ecore.roles.web.dto.TeamDto;
+import com.ecore.roles.web.dto.TeamResultDto;
+import com.ecore.roles.web.dto.TeamRosterDto;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.UUID;
@@ -12,4 +15,8 @@ public interface TeamsApi {
 
     ResponseEntity<TeamDto> getTeam(UUID teamId);
 
+    Mono<ResponseEntity<List<TeamResultDto>>> lookupTeams(List<UUID> teamIds);
+
+    Mono<ResponseEntity<TeamRosterDto>> getTeamRoster(UUID teamId);
+
 }
@@ -1,7 +1,9 @@
 package com.ecore.roles.web;
 
 import com.ecore.roles.web.dto.UserDto;
+import com.ecore.roles.web.dto.UserResultDto;
 import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.UUID;
@@ -11,4 +13,6 @@ public interface UsersApi {
     ResponseEntity<List<UserDto>> getUsers();
 
     ResponseEntity<UserDto> getUser(UUID userId);
+
+    Mono<ResponseEntity<List<UserResultDto>>> lookupUsers(List<UUID> userIds);
 }
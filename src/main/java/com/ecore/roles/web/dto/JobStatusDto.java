@@ -0,0 +1,64 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.JobStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobStatusDto {
+
+    @JsonProperty
+    private String name;
+
+    @JsonProperty
+    private String state;
+
+    @JsonProperty
+    private long totalItems;
+
+    @JsonProperty
+    private long processedItems;
+
+    @JsonProperty
+    private long created;
+
+    @JsonProperty
+    private UUID lastKey;
+
+    @JsonProperty
+    private Instant updatedAt;
+
+    @JsonProperty
+    private String error;
+
+    public static JobStatusDto fromModel(JobStatus status) {
+        if (status == null) {
+            return null;
+        }
+        return JobStatusDto.builder()
+                .name(status.getName())
+                .state(status.getState().name())
+                .totalItems(status.getTotalItems())
+                .processedItems(status.getProcessedItems())
+                .created(status.getCreated())
+                .lastKey(status.getLastKey())
+                .updatedAt(status.getUpdatedAt())
+                .error(status.getError())
+                .build();
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecore.roles.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class MembershipCheckDto {
+
+    @JsonProperty
+    private UUID roleId;
+
+    @JsonProperty(value = "teamMemberId")
+    private UUID userId;
+
+    @JsonProperty
+    private UUID teamId;
+
+    @JsonProperty
+    private boolean granted;
+}
@@ -0,0 +1,65 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.MembershipImport;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class MembershipImportDto {
+
+    @JsonProperty
+    private String name;
+
+    @JsonProperty
+    private long resumedAfterLine;
+
+    @JsonProperty
+    private long linesRead;
+
+    @JsonProperty
+    private long created;
+
+    @JsonProperty
+    private long duplicates;
+
+    @JsonProperty
+    private long invalid;
+
+    @JsonProperty
+    private long durationMillis;
+
+    @JsonProperty
+    private long rowsPerSecond;
+
+    @JsonProperty
+    private List<String> errors;
+
+    public static MembershipImportDto fromModel(MembershipImport result) {
+        if (result == null) {
+            return null;
+        }
+        return MembershipImportDto.builder()
+                .name(result.getName())
+                .resumedAfterLine(result.getResumedAfterLine())
+                .linesRead(result.getLinesRead())
+                .created(result.getCreated())
+                .duplicates(result.getDuplicates())
+                .invalid(result.getInvalid())
+                .durationMillis(result.getDuration().toMillis())
+                .rowsPerSecond(result.getRowsPerSecond())
+                .errors(result.getErrors())
+                .build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.MembershipResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class MembershipResultDto {
+
+    @JsonProperty
+    private int status;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private MembershipDto membership;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static MembershipResultDto fromModel(MembershipResult result) {
+        if (result == null) {
+            return null;
+        }
+        return MembershipResultDto.builder()
+                .status(result.getStatus())
+                .membership(MembershipDto.fromModel(result.getMembership()))
+                .error(result.getError())
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.MembershipRef;
+import com.ecore.roles.model.ReconciliationReport;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReconciliationReportDto {
+
+    @JsonProperty
+    private String state;
+
+    @JsonProperty
+    private boolean dryRun;
+
+    @JsonProperty
+    private long teamsScanned;
+
+    @JsonProperty
+    private long membershipsScanned;
+
+    @JsonProperty
+    private long orphansFound;
+
+    @JsonProperty
+    private long orphansRemoved;
+
+    @JsonProperty
+    private long teamsFailed;
+
+    @JsonProperty
+    private long durationMillis;
+
+    @JsonProperty
+    private List<MembershipDto> orphans;
+
+    @JsonProperty
+    private String error;
+
+    public static ReconciliationReportDto fromModel(ReconciliationReport report) {
+        if (report == null) {
+            return null;
+        }
+        return ReconciliationReportDto.builder()
+                .state(report.getState().name())
+                .dryRun(report.isDryRun())
+                .teamsScanned(report.getTeamsScanned())
+                .membershipsScanned(report.getMembershipsScanned())
+                .orphansFound(report.getOrphansFound())
+                .orphansRemoved(report.getOrphansRemoved())
+                .teamsFailed(report.getTeamsFailed())
+                .durationMillis(report.getDuration().toMillis())
+                .orphans(report.getOrphans().stream()
+                        .map(ReconciliationReportDto::toDto)
+                        .collect(Collectors.toList()))
+                .error(report.getError())
+                .build();
+    }
+
+    private static MembershipDto toDto(MembershipRef membership) {
+        return MembershipDto.builder()
+                .id(membership.getId())
+                .roleId(membership.getRoleId())
+                .userId(membership.getUserId())
+                .teamId(membership.getTeamId())
+                .build();
+    }
+}
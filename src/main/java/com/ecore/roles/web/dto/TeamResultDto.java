@@ -0,0 +1,49 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.model.LookupResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class TeamResultDto {
+
+    @JsonProperty
+    private UUID id;
+
+    @JsonProperty
+    private int status;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private TeamDto team;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static TeamResultDto fromModel(LookupResult<Team> result) {
+        if (result == null) {
+            return null;
+        }
+        return TeamResultDto.builder()
+                .id(result.getId())
+                .status(result.getStatus())
+                .team(TeamDto.fromModel(result.getValue()))
+                .error(result.getError())
+                .build();
+    }
+}
@@ -0,0 +1,40 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.TeamRoster;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class TeamRosterDto {
+
+    @JsonProperty
+    private TeamDto team;
+
+    @JsonProperty
+    private List<TeamRosterMemberDto> members;
+
+    public static TeamRosterDto fromModel(TeamRoster roster) {
+        if (roster == null) {
+            return null;
+        }
+        return TeamRosterDto.builder()
+                .team(TeamDto.fromModel(roster.getTeam()))
+                .members(roster.getMembers().stream()
+                        .map(TeamRosterMemberDto::fromModel)
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.model.TeamRosterMember;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class TeamRosterMemberDto {
+
+    @JsonProperty
+    private UUID userId;
+
+    @JsonProperty
+    private boolean teamLead;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserDto user;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private RoleDto role;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static TeamRosterMemberDto fromModel(TeamRosterMember member) {
+        if (member == null) {
+            return null;
+        }
+        return TeamRosterMemberDto.builder()
+                .userId(member.getUserId())
+                .teamLead(member.isTeamLead())
+                .user(UserDto.fromModel(member.getUser()))
+                .role(RoleDto.fromModel(member.getRole()))
+                .error(member.getError())
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.ecore.roles.web.dto;
+
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.model.LookupResult;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter
+@Setter
+@Builder
+@EqualsAndHashCode
+public class UserResultDto {
+
+    @JsonProperty
+    private UUID id;
+
+    @JsonProperty
+    private int status;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private UserDto user;
+
+    @JsonProperty
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
+    public static UserResultDto fromModel(LookupResult<User> result) {
+        if (result == null) {
+            return null;
+        }
+        return UserResultDto.builder()
+                .id(result.getId())
+                .status(result.getStatus())
+                .user(UserDto.fromModel(result.getValue()))
+                .error(result.getError())
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecore.roles.web.rest;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+/**
+ * Spring MVC's executor for asynchronous responses, which lets a single streamed response run on an
+ * executor of its own instead. A handler calls {@link #use(AsyncTaskExecutor)} before returning its
+ * streaming body, and the body is submitted to that executor when the request goes asynchronous.
+ */
+public class AsyncExecutors implements AsyncTaskExecutor {
+
+    private static final String EXECUTOR_ATTRIBUTE = AsyncExecutors.class.getName() + ".executor";
+
+    private final AsyncTaskExecutor defaultExecutor;
+
+    public AsyncExecutors(AsyncTaskExecutor defaultExecutor) {
+        this.defaultExecutor = defaultExecutor;
+    }
+
+    static void use(AsyncTaskExecutor executor) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(EXECUTOR_ATTRIBUTE, executor, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        current().execute(task);
+    }
+
+    @Override
+    public void execute(Runnable task, long startTimeout) {
+        current().execute(task, startTimeout);
+    }
+
+    @Override
+    public Future<?> submit(Runnable task) {
+        return current().submit(task);
+    }
+
+    @Override
+    public <T> Future<T> submit(Callable<T> task) {
+        return current().submit(task);
+    }
+
+    // Spring MVC submits the response from the request's thread, where the handler left its choice
+    private AsyncTaskExecutor current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        Object executor = attributes == null
+                ? null
+                : attributes.getAttribute(EXECUTOR_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        return executor instanceof AsyncTaskExecutor ? (AsyncTaskExecutor) executor : defaultExecutor;
+    }
+}
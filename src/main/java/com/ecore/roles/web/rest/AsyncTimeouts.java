@@ -0,0 +1,33 @@
+package com.ecore.roles.web.rest;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Gives a single streamed response its own timeout instead of
+ * {@code spring.mvc.async.request-timeout}. A handler calls {@link #set(Duration)} before returning
+ * its streaming body, and the timeout is applied to that request just before it goes asynchronous.
+ */
+public class AsyncTimeouts implements CallableProcessingInterceptor {
+
+    private static final String TIMEOUT_ATTRIBUTE = AsyncTimeouts.class.getName() + ".timeout";
+
+    static void set(Duration timeout) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(TIMEOUT_ATTRIBUTE, timeout, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+        Object timeout = request.getAttribute(TIMEOUT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (timeout instanceof Duration && request instanceof AsyncWebRequest) {
+            ((AsyncWebRequest) request).setTimeout(((Duration) timeout).toMillis());
+        }
+    }
+}
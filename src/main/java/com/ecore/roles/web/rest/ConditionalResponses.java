@@ -0,0 +1,42 @@
+package com.ecore.roles.web.rest;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Function;
+
+/**
+ * If-None-Match handling for the read endpoints. They are mapped to POST, for which Spring's
+ * {@code checkNotModified} answers a matching tag with 412, so the comparison is done here and a
+ * match is answered with 304 before the body is loaded.
+ */
+final class ConditionalResponses {
+
+    private ConditionalResponses() {}
+
+    static <T> ResponseEntity<T> ifNoneMatch(
+            String ifNoneMatch,
+            String etag,
+            Function<ResponseEntity.BodyBuilder, ResponseEntity<T>> response) {
+        if (matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return response.apply(ResponseEntity.status(200).eTag(etag));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecore.roles.web.rest;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.annotation.PreDestroy;
+
+/**
+ * Streams membership exports on a pool of their own, sized to the {@code membership-export}
+ * bulkhead. An export can stream for up to {@code membership-export.timeout}, so on the executor
+ * shared with other asynchronous responses a few of them would hold its threads and leave the rest
+ * queued; here an export beyond the bulkhead's limit is turned away with a 503 instead.
+ */
+@Component
+public class ExportExecutor {
+
+    public static final String BULKHEAD = "membership-export";
+
+    private final Bulkhead bulkhead;
+    private final ThreadPoolTaskExecutor executor;
+
+    @Autowired
+    public ExportExecutor(BulkheadRegistry bulkheadRegistry) {
+        this.bulkhead = bulkheadRegistry.bulkhead(BULKHEAD);
+        int threads = bulkhead.getBulkheadConfig().getMaxConcurrentCalls();
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        // an export gives its permit back just before its thread is free for the next one
+        executor.setQueueCapacity(threads);
+        executor.setThreadNamePrefix("export-");
+        executor.initialize();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * Sends the current request's streaming body to the export pool and returns it wrapped to give its
+     * place back once written.
+     *
+     * @throws BulkheadFullException when the limit of concurrent exports is reached
+     */
+    StreamingResponseBody submit(StreamingResponseBody body) {
+        bulkhead.acquirePermission();
+        AsyncExecutors.use(executor);
+        return outputStream -> {
+            try {
+                body.writeTo(outputStream);
+            } finally {
+                bulkhead.onComplete();
+            }
+        };
+    }
+}
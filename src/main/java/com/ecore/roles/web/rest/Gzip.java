@@ -0,0 +1,28 @@
+package com.ecore.roles.web.rest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+public final class Gzip {
+
+    private Gzip() {}
+
+    /**
+     * Gzip at the fastest level. Ids are random hex, which compresses barely better at the default
+     * level, while the default level spends several times as long deflating as the export spends
+     * reading from the database.
+     */
+    public static GZIPOutputStream fastest(OutputStream out, int bufferSize) throws IOException {
+        return new FastestGzipOutputStream(out, bufferSize);
+    }
+
+    private static final class FastestGzipOutputStream extends GZIPOutputStream {
+
+        private FastestGzipOutputStream(OutputStream out, int bufferSize) throws IOException {
+            super(out, bufferSize);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
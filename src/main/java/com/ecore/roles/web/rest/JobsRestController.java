@@ -0,0 +1,85 @@
+package com.ecore.roles.web.rest;
+
+import com.ecore.roles.service.DefaultRoleBackfillService;
+import com.ecore.roles.service.MembershipReconciliationService;
+import com.ecore.roles.web.JobsApi;
+import com.ecore.roles.web.dto.JobStatusDto;
+import com.ecore.roles.web.dto.ReconciliationReportDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static com.ecore.roles.web.dto.JobStatusDto.fromModel;
+
+@RequiredArgsConstructor
+@RestController
+@RequestMapping(value = "/v1/jobs")
+public class JobsRestController implements JobsApi {
+
+    private final DefaultRoleBackfillService defaultRoleBackfillService;
+    private final MembershipReconciliationService membershipReconciliationService;
+
+    @Override
+    @PostMapping(
+            path = "/default-role-backfill/start",
+            produces = {"application/json"})
+    public ResponseEntity<JobStatusDto> startDefaultRoleBackfill() {
+        return ResponseEntity
+                .status(200)
+                .body(fromModel(defaultRoleBackfillService.start()));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/default-role-backfill/stop",
+            produces = {"application/json"})
+    public ResponseEntity<JobStatusDto> stopDefaultRoleBackfill() {
+        return ResponseEntity
+                .status(200)
+                .body(fromModel(defaultRoleBackfillService.stop()));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/default-role-backfill",
+            produces = {"application/json"})
+    public ResponseEntity<JobStatusDto> getDefaultRoleBackfill() {
+        return ResponseEntity
+                .status(200)
+                .body(fromModel(defaultRoleBackfillService.getStatus()));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/membership-reconciliation/start",
+            produces = {"application/json"})
+    public ResponseEntity<ReconciliationReportDto> startMembershipReconciliation(
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        return ResponseEntity
+                .status(200)
+                .body(ReconciliationReportDto.fromModel(membershipReconciliationService.start(dryRun)));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/membership-reconciliation/stop",
+            produces = {"application/json"})
+    public ResponseEntity<ReconciliationReportDto> stopMembershipReconciliation() {
+        return ResponseEntity
+                .status(200)
+                .body(ReconciliationReportDto.fromModel(membershipReconciliationService.stop()));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/membership-reconciliation",
+            produces = {"application/json"})
+    public ResponseEntity<ReconciliationReportDto> getMembershipReconciliation() {
+        return ResponseEntity
+                .status(200)
+                .body(ReconciliationReportDto.fromModel(membershipReconciliationService.getStatus()));
+    }
+}
@@ -1,26 +1,59 @@
 package com.ecore.roles.web.rest;
 
+import com.ecore.roles.configuration.MembershipExportConfigurationProperties;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.DataVersions;
+import com.ecore.roles.service.MembershipImportService;
 import com.ecore.roles.service.MembershipsService;
 import com.ecore.roles.web.MembershipsApi;
+import com.ecore.roles.web.dto.MembershipCheckDto;
 import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.dto.MembershipImportDto;
+import com.ecore.roles.web.dto.MembershipResultDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
-import java.util.ArrayList;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
+import static com.ecore.roles.repository.DataVersions.Dataset.MEMBERSHIPS;
+import static com.ecore.roles.service.MembershipsService.MAX_PAGE_SIZE;
 import static com.ecore.roles.web.dto.MembershipDto.fromModel;
+import static com.ecore.roles.web.rest.ConditionalResponses.ifNoneMatch;
 
 @RequiredArgsConstructor
 @RestController
 @RequestMapping(value = "/v1/roles/memberships")
 public class MembershipsRestController implements MembershipsApi {
 
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String CSV = "text/csv";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final MembershipsService membershipsService;
+    private final MembershipImportService membershipImportService;
+    private final ObjectMapper objectMapper;
+    private final DataVersions dataVersions;
+    private final MembershipExportConfigurationProperties exportProperties;
+    private final ExportExecutor exportExecutor;
 
     @Override
     @PostMapping(
@@ -34,25 +67,168 @@ public class MembershipsRestController implements MembershipsApi {
                 .body(fromModel(membership));
     }
 
+    @Override
+    @PostMapping(
+            path = "/bulk",
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public ResponseEntity<List<MembershipResultDto>> assignRolesToMemberships(
+            @NotNull @RequestBody List<MembershipDto> membershipDtos) {
+        List<Membership> memberships = membershipDtos.stream()
+                .map(dto -> dto == null ? null : dto.toModel())
+                .collect(Collectors.toList());
+        return ResponseEntity
+                .status(200)
+                .body(membershipsService.assignRolesToMemberships(memberships).stream()
+                        .map(MembershipResultDto::fromModel)
+                        .collect(Collectors.toList()));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/import",
+            consumes = {CSV, NDJSON},
+            produces = {"application/json"})
+    public ResponseEntity<MembershipImportDto> importMemberships(
+            @RequestParam String name,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(name = HttpHeaders.CONTENT_ENCODING, required = false) String contentEncoding,
+            InputStream body) throws IOException {
+        MembershipImportService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                        ? MembershipImportService.Format.NDJSON
+                        : MembershipImportService.Format.CSV;
+        InputStream in = "gzip".equalsIgnoreCase(contentEncoding)
+                ? new GZIPInputStream(body, BUFFER_SIZE)
+                : body;
+        return ResponseEntity
+                .status(200)
+                .body(MembershipImportDto
+                        .fromModel(membershipImportService.importMemberships(name, format, in)));
+    }
+
+    /**
+     * If-None-Match is answered from the version in memory. A full response reads its tag and its page
+     * in one read-only transaction, so with a read replica both come from the same database and the
+     * ETag never labels older data.
+     */
     @Override
     @PostMapping(
             path = "/search",
             produces = {"application/json"})
     public ResponseEntity<List<MembershipDto>> getMemberships(
-            @RequestParam UUID roleId) {
+            @RequestParam UUID roleId,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(required = false) Integer limit,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ifNoneMatch(ifNoneMatch, dataVersions.etag(MEMBERSHIPS),
+                response -> dataVersions.readTagged(etag -> {
+                    response.eTag(etag);
 
-        List<Membership> memberships = membershipsService.getMemberships(roleId);
+                    if (after == null && limit == null) {
+                        return response.body(membershipsService.getMemberships(roleId).stream()
+                                .map(MembershipDto::fromModel)
+                                .collect(Collectors.toList()));
+                    }
+                    int pageSize = limit == null ? MAX_PAGE_SIZE : limit;
+                    List<Membership> memberships = membershipsService.getMemberships(roleId, after, pageSize);
 
-        List<MembershipDto> newMembershipDto = new ArrayList<>();
+                    if (!memberships.isEmpty() && memberships.size() >= Math.min(pageSize, MAX_PAGE_SIZE)) {
+                        response.header(NEXT_CURSOR_HEADER,
+                                memberships.get(memberships.size() - 1).getId().toString());
+                    }
+                    return response.body(memberships.stream()
+                            .map(MembershipDto::fromModel)
+                            .collect(Collectors.toList()));
+                }, MEMBERSHIPS));
+    }
 
-        for (Membership membership : memberships) {
-            MembershipDto membershipDto = fromModel(membership);
-            newMembershipDto.add(membershipDto);
+    /**
+     * The body is streamed after the ETag has been sent, in a transaction of its own on the primary, so
+     * it already contains every change the version in memory accounts for.
+     */
+    @Override
+    @PostMapping(
+            path = "/search/stream",
+            produces = {"application/json"})
+    public ResponseEntity<StreamingResponseBody> streamMemberships(
+            @RequestParam UUID roleId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = dataVersions.etag(MEMBERSHIPS);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                membershipsService.streamMemberships(roleId, membership -> {
+                    try {
+                        generator.writeObject(fromModel(membership));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ifNoneMatch(ifNoneMatch, etag, response -> response
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/export",
+            produces = {NDJSON})
+    public ResponseEntity<StreamingResponseBody> exportMemberships(
+            @RequestParam(required = false) UUID roleId,
+            @RequestParam(required = false) UUID teamId,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip");
+        StreamingResponseBody body = exportExecutor.submit(outputStream -> {
+            OutputStream out = gzip ? Gzip.fastest(outputStream, BUFFER_SIZE) : outputStream;
+            try (OutputStream buffered = new BufferedOutputStream(out, BUFFER_SIZE)) {
+                membershipsService.exportMemberships(roleId, teamId, buffered);
+            }
+        });
+        AsyncTimeouts.set(exportProperties.getTimeout());
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(200)
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
         }
+        return response.body(body);
+    }
 
+    @Override
+    @PostMapping(
+            path = "/users/{userId}",
+            produces = {"application/json"})
+    public ResponseEntity<List<MembershipDto>> getUserMemberships(
+            @PathVariable UUID userId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ifNoneMatch(ifNoneMatch, dataVersions.etag(MEMBERSHIPS),
+                response -> dataVersions.readTagged(etag -> response.eTag(etag)
+                        .body(membershipsService.getUserMemberships(userId).stream()
+                                .map(MembershipDto::fromModel)
+                                .collect(Collectors.toList())),
+                        MEMBERSHIPS));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/check",
+            produces = {"application/json"})
+    public ResponseEntity<MembershipCheckDto> checkMembership(
+            @RequestParam UUID userId,
+            @RequestParam UUID teamId,
+            @RequestParam UUID roleId) {
         return ResponseEntity
                 .status(200)
-                .body(newMembershipDto);
+                .body(MembershipCheckDto.builder()
+                        .userId(userId)
+                        .teamId(teamId)
+                        .roleId(roleId)
+                        .granted(membershipsService.hasRole(userId, teamId, roleId))
+                        .build());
     }
 
 }
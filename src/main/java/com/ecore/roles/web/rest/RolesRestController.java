@@ -1,10 +1,12 @@
 package com.ecore.roles.web.rest;
 
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.RoleCatalog;
 import com.ecore.roles.service.RolesService;
 import com.ecore.roles.web.RolesApi;
 import com.ecore.roles.web.dto.RoleDto;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,7 +15,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 
+import static com.ecore.roles.repository.DataVersions.etag;
 import static com.ecore.roles.web.dto.RoleDto.fromModel;
+import static com.ecore.roles.web.rest.ConditionalResponses.ifNoneMatch;
 
 @RequiredArgsConstructor
 @RestController
@@ -21,6 +25,7 @@ import static com.ecore.roles.web.dto.RoleDto.fromModel;
 public class RolesRestController implements RolesApi {
 
     private final RolesService rolesService;
+    private final RoleCatalog roleCatalog;
 
     @Override
     @PostMapping(
@@ -36,20 +41,33 @@ public class RolesRestController implements RolesApi {
     @Override
     @PostMapping(
             produces = {"application/json"})
-    public ResponseEntity<List<RoleDto>> getRoles() {
+    public ResponseEntity<List<RoleDto>> getRoles(
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ifNoneMatch(ifNoneMatch, etag(roleCatalog.version()), response -> {
 
-        List<Role> getRoles = rolesService.GetRoles();
+            List<Role> getRoles = rolesService.GetRoles();
 
-        List<RoleDto> roleDtoList = new ArrayList<>();
+            List<RoleDto> roleDtoList = new ArrayList<>();
 
-        for (Role role : getRoles) {
-            RoleDto roleDto = fromModel(role);
-            roleDtoList.add(roleDto);
-        }
+            for (Role role : getRoles) {
+                RoleDto roleDto = fromModel(role);
+                roleDtoList.add(roleDto);
+            }
 
+            return response.body(roleDtoList);
+        });
+    }
+
+    @Override
+    @PostMapping(
+            path = "/search",
+            produces = {"application/json"})
+    public ResponseEntity<RoleDto> getRole(
+            @RequestParam(name = "teamMemberId") UUID userId,
+            @RequestParam UUID teamId) {
         return ResponseEntity
                 .status(200)
-                .body(roleDtoList);
+                .body(fromModel(rolesService.GetRole(userId, teamId)));
     }
 
     @Override
@@ -57,10 +75,10 @@ public class RolesRestController implements RolesApi {
             path = "/{roleId}",
             produces = {"application/json"})
     public ResponseEntity<RoleDto> getRole(
-            @PathVariable UUID roleId) {
-        return ResponseEntity
-                .status(200)
-                .body(fromModel(rolesService.GetRole(roleId)));
+            @PathVariable UUID roleId,
+            @RequestHeader(name = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return ifNoneMatch(ifNoneMatch, etag(roleCatalog.version()),
+                response -> response.body(fromModel(rolesService.GetRole(roleId))));
     }
 
 }
@@ -1,15 +1,21 @@
 package com.ecore.roles.web.rest;
 
+import com.ecore.roles.service.RostersService;
 import com.ecore.roles.service.TeamsService;
 import com.ecore.roles.web.TeamsApi;
 import com.ecore.roles.web.dto.TeamDto;
+import com.ecore.roles.web.dto.TeamResultDto;
+import com.ecore.roles.web.dto.TeamRosterDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
+import javax.validation.constraints.NotNull;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -22,6 +28,7 @@ import static com.ecore.roles.web.dto.TeamDto.fromModel;
 public class TeamsRestController implements TeamsApi {
 
     private final TeamsService teamsService;
+    private final RostersService rostersService;
 
     @Override
     @PostMapping(
@@ -45,4 +52,30 @@ public class TeamsRestController implements TeamsApi {
                 .body(fromModel(teamsService.getTeam(teamId)));
     }
 
+    @Override
+    @PostMapping(
+            path = "/batch",
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public Mono<ResponseEntity<List<TeamResultDto>>> lookupTeams(
+            @NotNull @RequestBody List<UUID> teamIds) {
+        return teamsService.lookupTeams(teamIds)
+                .map(results -> ResponseEntity
+                        .status(200)
+                        .body(results.stream()
+                                .map(TeamResultDto::fromModel)
+                                .collect(Collectors.toList())));
+    }
+
+    @Override
+    @PostMapping(
+            path = "/{teamId}/roster",
+            produces = {"application/json"})
+    public Mono<ResponseEntity<TeamRosterDto>> getTeamRoster(
+            @PathVariable UUID teamId) {
+        return rostersService.getTeamRoster(teamId)
+                .map(roster -> ResponseEntity
+                        .status(200)
+                        .body(TeamRosterDto.fromModel(roster)));
+    }
 }
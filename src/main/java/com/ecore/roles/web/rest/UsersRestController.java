@@ -3,13 +3,17 @@ package com.ecore.roles.web.rest;
 import com.ecore.roles.service.UsersService;
 import com.ecore.roles.web.UsersApi;
 import com.ecore.roles.web.dto.UserDto;
+import com.ecore.roles.web.dto.UserResultDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 
+import javax.validation.constraints.NotNull;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -44,4 +48,19 @@ public class UsersRestController implements UsersApi {
                 .status(200)
                 .body(fromModel(usersService.getUser(userId)));
     }
+
+    @Override
+    @PostMapping(
+            path = "/batch",
+            consumes = {"application/json"},
+            produces = {"application/json"})
+    public Mono<ResponseEntity<List<UserResultDto>>> lookupUsers(
+            @NotNull @RequestBody List<UUID> userIds) {
+        return usersService.lookupUsers(userIds)
+                .map(results -> ResponseEntity
+                        .status(200)
+                        .body(results.stream()
+                                .map(UserResultDto::fromModel)
+                                .collect(Collectors.toList())));
+    }
 }
@@ -0,0 +1,241 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static java.lang.String.format;
+
+/**
+ * Rebuilds {@code role} and {@code membership} with every UUID stored as {@code binary(16)}, the
+ * layout Hibernate's {@code uuid-binary} type reads and writes. Written in Java rather than SQL
+ * because converting the textual ids needs vendor specific functions, while JDBC works the same on
+ * H2 and MySQL.
+ * <p>
+ * The new tables add unique keys on {@code role (name)} and {@code membership (team_id, user_id)},
+ * which V1 did not have. Rows that break them are not merged, since only the data's owner can tell
+ * which role a user should keep in a team: the migration lists them and fails before changing
+ * anything, and runs again once they have been resolved.
+ * <p>
+ * MySQL commits every DDL statement, so the migration is not atomic there, and after a failure
+ * Flyway has to be told with {@code flyway repair} before it runs it again. A run that failed while
+ * copying leaves only the {@code _v3} tables behind, which the next run drops before starting over.
+ * The swap moves the old tables aside as {@code _v2} before the new ones take their names and drops
+ * them last, so at no point is the data held only by a table that is being dropped. Once the swap
+ * has begun the next run does not copy again but finishes it, taking each step only when the tables
+ * are still in the state before it.
+ */
+public class V3__compact_uuid_keys extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1_000;
+    private static final int REPORTED_DUPLICATES = 20;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (!swapStarted(connection)) {
+            checkDuplicates(connection);
+            copy(connection);
+        }
+        swap(connection);
+    }
+
+    private static boolean swapStarted(Connection connection) throws SQLException {
+        return tableName(connection, "membership_v2") != null
+                || tableName(connection, "role_v2") != null
+                || idType(connection, "role") == Types.BINARY;
+    }
+
+    private void copy(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("drop table if exists membership_v3");
+            statement.execute("drop table if exists role_v3");
+            statement.execute("create table role_v3 ("
+                    + "id binary(16) not null primary key, "
+                    + "name varchar(255) not null, "
+                    + "constraint uk_role_name unique (name))");
+            statement.execute("create table membership_v3 ("
+                    + "id binary(16) not null primary key, "
+                    + "team_id binary(16) not null, "
+                    + "user_id binary(16) not null, "
+                    + "role_id binary(16) not null, "
+                    + "constraint uk_membership_team_id_user_id unique (team_id, user_id), "
+                    + "constraint fk_membership_role_id foreign key (role_id) references role_v3 (id))");
+        }
+
+        copyRoles(connection);
+        copyMemberships(connection);
+    }
+
+    private static void swap(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            boolean membershipCopied = tableName(connection, "membership_v3") != null;
+            boolean roleCopied = tableName(connection, "role_v3") != null;
+            if (membershipCopied && tableName(connection, "membership_v2") == null) {
+                statement.execute("alter table membership rename to membership_v2");
+            }
+            if (roleCopied && tableName(connection, "role_v2") == null) {
+                statement.execute("alter table role rename to role_v2");
+            }
+            if (roleCopied) {
+                statement.execute("alter table role_v3 rename to role");
+            }
+            if (membershipCopied) {
+                statement.execute("alter table membership_v3 rename to membership");
+            }
+            if (tableName(connection, "membership_v2") != null) {
+                statement.execute("drop table membership_v2");
+            }
+            if (tableName(connection, "role_v2") != null) {
+                statement.execute("drop table role_v2");
+            }
+            if (!hasIndex(connection, "membership", "idx_membership_user_id_team_id")) {
+                statement.execute("create index idx_membership_user_id_team_id "
+                        + "on membership (user_id, team_id, role_id)");
+            }
+        }
+    }
+
+    private static void checkDuplicates(Connection connection) throws SQLException {
+        List<String> duplicates = new ArrayList<>();
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery(
+                        "select name, count(*) from role group by name having count(*) > 1")) {
+            while (rows.next()) {
+                duplicates.add(format("role name '%s': %d rows", rows.getString(1), rows.getInt(2)));
+            }
+        }
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery("select team_id, user_id, count(*) from membership "
+                        + "group by team_id, user_id having count(*) > 1")) {
+            while (rows.next()) {
+                duplicates.add(format("membership team_id %s, user_id %s: %d rows",
+                        toUuid(rows.getBytes(1)), toUuid(rows.getBytes(2)), rows.getInt(3)));
+            }
+        }
+        if (duplicates.isEmpty()) {
+            return;
+        }
+        StringBuilder report = new StringBuilder(format("V3 adds unique keys on role (name) and "
+                + "membership (team_id, user_id), which %d groups of rows break. Keep one row of each "
+                + "and run the migration again:", duplicates.size()));
+        duplicates.stream().limit(REPORTED_DUPLICATES)
+                .forEach(duplicate -> report.append(format("%n  %s", duplicate)));
+        if (duplicates.size() > REPORTED_DUPLICATES) {
+            report.append(format("%n  and %d more", duplicates.size() - REPORTED_DUPLICATES));
+        }
+        throw new FlywayException(report.toString());
+    }
+
+    /**
+     * The table's name as the database stores it, which differs in case between H2 and MySQL, or null
+     * when there is no such table.
+     */
+    private static String tableName(Connection connection, String table) throws SQLException {
+        try (ResultSet tables = connection.getMetaData()
+                .getTables(connection.getCatalog(), connection.getSchema(), null, new String[] {"TABLE"})) {
+            while (tables.next()) {
+                if (tables.getString("TABLE_NAME").equalsIgnoreCase(table)) {
+                    return tables.getString("TABLE_NAME");
+                }
+            }
+        }
+        return null;
+    }
+
+    private static int idType(Connection connection, String table) throws SQLException {
+        String name = tableName(connection, table);
+        if (name == null) {
+            return Types.NULL;
+        }
+        try (ResultSet columns = connection.getMetaData().getColumns(
+                connection.getCatalog(), connection.getSchema(), name, null)) {
+            while (columns.next()) {
+                if (columns.getString("COLUMN_NAME").equalsIgnoreCase("id")) {
+                    return columns.getInt("DATA_TYPE");
+                }
+            }
+        }
+        return Types.NULL;
+    }
+
+    private static boolean hasIndex(Connection connection, String table, String index) throws SQLException {
+        try (ResultSet indexes = connection.getMetaData().getIndexInfo(
+                connection.getCatalog(), connection.getSchema(), tableName(connection, table), false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void copyRoles(Connection connection) throws SQLException {
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery("select id, name from role");
+                PreparedStatement insert = connection.prepareStatement(
+                        "insert into role_v3 (id, name) values (?, ?)")) {
+            int pending = 0;
+            while (rows.next()) {
+                insert.setBytes(1, toBytes(rows.getString("id")));
+                insert.setString(2, rows.getString("name"));
+                insert.addBatch();
+                pending = flushIfFull(insert, pending + 1);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private void copyMemberships(Connection connection) throws SQLException {
+        try (Statement select = connection.createStatement();
+                ResultSet rows = select.executeQuery("select id, team_id, user_id, role_id from membership");
+                PreparedStatement insert = connection.prepareStatement(
+                        "insert into membership_v3 (id, team_id, user_id, role_id) values (?, ?, ?, ?)")) {
+            int pending = 0;
+            while (rows.next()) {
+                insert.setBytes(1, toBytes(rows.getString("id")));
+                // binary(255) columns may come back right-padded with zeros on MySQL
+                insert.setBytes(2, Arrays.copyOf(rows.getBytes("team_id"), 16));
+                insert.setBytes(3, Arrays.copyOf(rows.getBytes("user_id"), 16));
+                insert.setBytes(4, toBytes(rows.getString("role_id")));
+                insert.addBatch();
+                pending = flushIfFull(insert, pending + 1);
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static int flushIfFull(PreparedStatement insert, int pending) throws SQLException {
+        if (pending < BATCH_SIZE) {
+            return pending;
+        }
+        insert.executeBatch();
+        return 0;
+    }
+
+    private static UUID toUuid(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, 16));
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static byte[] toBytes(String uuid) {
+        UUID id = UUID.fromString(uuid.trim());
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}
@@ -0,0 +1,2 @@
+create index idx_membership_user_id_team_id
+    on membership (user_id, team_id, role_id);
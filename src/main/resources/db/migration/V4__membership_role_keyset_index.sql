@@ -0,0 +1,2 @@
+create index idx_membership_role_id_id
+    on membership (role_id, id);
@@ -0,0 +1,12 @@
+create table audit_event
+(
+    id          bigint       not null auto_increment
+        primary key,
+    occurred_at timestamp    not null,
+    action      varchar(64)  not null,
+    entity_id   binary(16)   not null,
+    details     varchar(1024)
+);
+
+create index idx_audit_event_entity_id
+    on audit_event (entity_id, occurred_at);
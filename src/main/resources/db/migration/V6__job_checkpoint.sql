@@ -0,0 +1,10 @@
+create table job_checkpoint
+(
+    name         varchar(64) not null
+        primary key,
+    last_key     binary(16),
+    processed    bigint      not null,
+    created      bigint      not null,
+    updated_at   timestamp   not null,
+    completed_at timestamp
+);
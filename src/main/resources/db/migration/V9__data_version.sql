@@ -0,0 +1,10 @@
+create table data_version
+(
+    dataset varchar(32) not null
+        primary key,
+    version bigint      not null
+);
+
+insert into data_version(dataset, version)
+values ('ROLES', 0),
+       ('MEMBERSHIPS', 0);
@@ -0,0 +1,90 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.UuidBytes;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.ecore.roles.web.dto.RoleDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.ecore.roles.utils.RestAssuredHelper.createRole;
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "audit.durability=wait_for_write",
+                "audit.offer-timeout=10s",
+                "spring.datasource.hikari.maximum-pool-size=4",
+                "jobs.membership-reconciliation.parallelism=1"})
+public class AuditApiTest {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public AuditApiTest(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssuredHelper.setUp(port);
+    }
+
+    @Test
+    void shouldAuditCreatedRole() {
+        String name = "Auditor " + UUID.randomUUID();
+
+        RoleDto actualRole = createRole(Role.builder().name(name).build())
+                .statusCode(200)
+                .extract().as(RoleDto.class);
+
+        List<String> details = jdbcTemplate.queryForList(
+                "select details from audit_event where action = 'ROLE_CREATED' and entity_id = ?",
+                String.class,
+                (Object) UuidBytes.of(actualRole.getId()));
+        assertThat(details).containsExactly(format("{\"name\":\"%s\"}", name));
+    }
+
+    @Test
+    void shouldWriteWhileWaitingRequestsHoldEveryPooledConnection() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<RoleDto>> created = new ArrayList<>();
+            long started = System.nanoTime();
+            for (int i = 0; i < 6; i++) {
+                created.add(clients
+                        .submit(() -> createRole(Role.builder().name("Auditor " + UUID.randomUUID()).build())
+                                .statusCode(200)
+                                .extract().as(RoleDto.class)));
+            }
+            for (Future<RoleDto> role : created) {
+                Integer events = jdbcTemplate.queryForObject(
+                        "select count(*) from audit_event where action = 'ROLE_CREATED' and entity_id = ?",
+                        Integer.class,
+                        (Object) UuidBytes.of(role.get().getId()));
+                assertThat(events).isEqualTo(1);
+            }
+
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.client.ReactiveTeamsClient;
+import com.ecore.roles.client.ReactiveUsersClient;
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BatchLookupApiTest {
+
+    private final LoadingCache<UUID, User> usersCache;
+    private final LoadingCache<UUID, Team> teamsCache;
+
+    @MockBean
+    private ReactiveUsersClient reactiveUsersClient;
+
+    @MockBean
+    private ReactiveTeamsClient reactiveTeamsClient;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public BatchLookupApiTest(
+            LoadingCache<UUID, User> usersCache,
+            LoadingCache<UUID, Team> teamsCache) {
+        this.usersCache = usersCache;
+        this.teamsCache = teamsCache;
+    }
+
+    @BeforeEach
+    void setUp() {
+        RestAssuredHelper.setUp(port);
+        usersCache.invalidateAll();
+        teamsCache.invalidateAll();
+    }
+
+    @Test
+    void shouldLookUpUsersInRequestOrderWithOneResultPerId() {
+        when(reactiveUsersClient.getUser(GIANNI_USER_UUID)).thenReturn(Mono.just(GIANNI_USER()));
+        when(reactiveUsersClient.getUser(UUID_1)).thenReturn(Mono.empty());
+        when(reactiveUsersClient.getUser(UUID_2))
+                .thenReturn(
+                        Mono.error(WebClientResponseException.create(500, "Server Error", null, null, null)));
+
+        lookup("/v1/users/batch", List.of(UUID_1, GIANNI_USER_UUID, UUID_2, GIANNI_USER_UUID))
+                .statusCode(200)
+                .body("id", contains(UUID_1.toString(), GIANNI_USER_UUID.toString(), UUID_2.toString()))
+                .body("status", contains(404, 200, 502))
+                .body("[0].user", nullValue())
+                .body("[0].error", equalTo(String.format("User %s not found", UUID_1)))
+                .body("[1].user.displayName", equalTo(GIANNI_USER().getDisplayName()));
+        verify(reactiveUsersClient, times(1)).getUser(GIANNI_USER_UUID);
+    }
+
+    @Test
+    void shouldAnswerCachedUsersWithoutCallingTheUsersApi() {
+        usersCache.put(GIANNI_USER_UUID, GIANNI_USER());
+
+        lookup("/v1/users/batch", List.of(GIANNI_USER_UUID))
+                .statusCode(200)
+                .body("status", contains(200));
+        verify(reactiveUsersClient, never()).getUser(GIANNI_USER_UUID);
+    }
+
+    @Test
+    void shouldFailToLookUpMoreUsersThanOneBatch() {
+        lookup("/v1/users/batch", randomIds(501))
+                .statusCode(400)
+                .body("error", equalTo("Invalid 'User' object. At most 500 ids can be looked up at once."));
+    }
+
+    @Test
+    void shouldLookUpTeamsInRequestOrderWithOneResultPerId() {
+        when(reactiveTeamsClient.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID))
+                .thenReturn(Mono.just(ORDINARY_CORAL_LYNX_TEAM()));
+        when(reactiveTeamsClient.getTeam(UUID_1))
+                .thenReturn(
+                        Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)));
+
+        lookup("/v1/teams/batch", List.of(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1))
+                .statusCode(200)
+                .body("id", contains(ORDINARY_CORAL_LYNX_TEAM_UUID.toString(), UUID_1.toString()))
+                .body("status", contains(200, 404))
+                .body("[0].team.name", equalTo(ORDINARY_CORAL_LYNX_TEAM().getName()))
+                .body("[1].error", equalTo(String.format("Team %s not found", UUID_1)));
+    }
+
+    @Test
+    void shouldFailToLookUpTeamsWithNullIds() {
+        lookup("/v1/teams/batch", "[null]")
+                .statusCode(400)
+                .body("error", equalTo("Invalid 'Team' object. Ids must not be null."));
+    }
+
+    private static ValidatableResponse lookup(String path, Object body) {
+        return given()
+                .contentType(ContentType.JSON)
+                .body(body)
+                .when()
+                .post(path)
+                .then();
+    }
+
+    private static List<UUID> randomIds(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> UUID.randomUUID())
+                .collect(Collectors.toList());
+    }
+}
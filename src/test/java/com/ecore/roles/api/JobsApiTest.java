@@ -0,0 +1,124 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.repository.JobCheckpointRepository;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.utils.RestAssuredHelper;
+import io.restassured.path.json.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeams;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.TESTER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static io.restassured.RestAssured.when;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "jobs.default-role-backfill.chunk-size=1",
+                "jobs.default-role-backfill.delay-between-chunks=0ms"
+        })
+public class JobsApiTest {
+
+    private final RestTemplate restTemplate;
+    private final MembershipRepository membershipRepository;
+    private final RoleRepository roleRepository;
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    private MockRestServiceServer mockServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public JobsApiTest(
+            RestTemplate restTemplate,
+            MembershipRepository membershipRepository,
+            RoleRepository roleRepository,
+            JobCheckpointRepository jobCheckpointRepository) {
+        this.restTemplate = restTemplate;
+        this.membershipRepository = membershipRepository;
+        this.roleRepository = roleRepository;
+        this.jobCheckpointRepository = jobCheckpointRepository;
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        RestAssuredHelper.setUp(port);
+        membershipRepository.deleteAll();
+        jobCheckpointRepository.deleteAll();
+    }
+
+    @Test
+    void shouldGiveDefaultRoleToTeamMembersWithoutMembership() throws InterruptedException {
+        Team otherTeam = Team.builder().id(UUID_4).teamMemberIds(List.of(UUID_1)).build();
+        mockGetTeams(mockServer, List.of(ORDINARY_CORAL_LYNX_TEAM(), otherTeam));
+        membershipRepository.save(Membership.builder()
+                .role(roleRepository.findById(TESTER_ROLE_UUID).orElseThrow())
+                .teamId(ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .userId(GIANNI_USER_UUID)
+                .build());
+
+        assertThat(backfill("/start").getString("state")).isIn("RUNNING", "COMPLETED");
+
+        JsonPath completed = awaitCompletion();
+        assertThat(completed.getLong("totalItems")).isEqualTo(2);
+        assertThat(completed.getLong("processedItems")).isEqualTo(2);
+        assertThat(completed.getLong("created")).isEqualTo(3);
+        assertThat(roles(ORDINARY_CORAL_LYNX_TEAM_UUID)).isEqualTo(Map.of(
+                UUID_2, DEVELOPER_ROLE_UUID,
+                UUID_3, DEVELOPER_ROLE_UUID,
+                GIANNI_USER_UUID, TESTER_ROLE_UUID));
+        assertThat(roles(UUID_4)).isEqualTo(Map.of(UUID_1, DEVELOPER_ROLE_UUID));
+
+        backfill("/start");
+        assertThat(awaitCompletion().getLong("created")).isZero();
+    }
+
+    private Map<UUID, UUID> roles(UUID teamId) {
+        return membershipRepository.findByTeamId(teamId).stream()
+                .collect(Collectors.toMap(Membership::getUserId, m -> m.getRole().getId()));
+    }
+
+    private JsonPath awaitCompletion() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            JsonPath status = backfill("");
+            if (!status.getString("state").equals("RUNNING")) {
+                assertThat(status.getString("state")).isEqualTo("COMPLETED");
+                return status;
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Backfill did not complete");
+    }
+
+    private JsonPath backfill(String action) {
+        return when()
+                .post("/v1/jobs/default-role-backfill" + action)
+                .then()
+                .statusCode(200)
+                .extract().jsonPath();
+    }
+}
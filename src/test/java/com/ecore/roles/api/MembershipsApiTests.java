@@ -1,30 +1,63 @@
 package com.ecore.roles.api;
 
+import com.ecore.roles.client.model.Team;
 import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.MembershipIndex;
 import com.ecore.roles.repository.MembershipRepository;
 import com.ecore.roles.utils.RestAssuredHelper;
 import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.rest.MembershipsRestController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
 import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
+import static com.ecore.roles.utils.MockUtils.mockGetTeamNotFound;
 import static com.ecore.roles.utils.RestAssuredHelper.createMembership;
 import static com.ecore.roles.utils.RestAssuredHelper.getMemberships;
 import static com.ecore.roles.utils.TestData.*;
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class MembershipsApiTests {
 
     private final MembershipRepository membershipRepository;
+    private final MembershipIndex membershipIndex;
     private final RestTemplate restTemplate;
+    private final LoadingCache<UUID, Team> teamsCache;
 
     private MockRestServiceServer mockServer;
 
@@ -32,16 +65,24 @@ public class MembershipsApiTests {
     private int port;
 
     @Autowired
-    public MembershipsApiTests(MembershipRepository membershipRepository, RestTemplate restTemplate) {
+    public MembershipsApiTests(
+            MembershipRepository membershipRepository,
+            MembershipIndex membershipIndex,
+            RestTemplate restTemplate,
+            LoadingCache<UUID, Team> teamsCache) {
         this.membershipRepository = membershipRepository;
+        this.membershipIndex = membershipIndex;
         this.restTemplate = restTemplate;
+        this.teamsCache = teamsCache;
     }
 
     @BeforeEach
     void setUp() {
         mockServer = MockRestServiceServer.createServer(restTemplate);
         RestAssuredHelper.setUp(port);
+        teamsCache.invalidateAll();
         membershipRepository.deleteAll();
+        membershipIndex.rebuild();
     }
 
     @Test
@@ -161,6 +202,387 @@ public class MembershipsApiTests {
                 .validate(400, "Bad Request");
     }
 
+    @Test
+    void shouldAssignRolesInBulkAndReportFailuresPerMembership() {
+        mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+        mockServer.expect(requestTo("http://test.com/teams/" + UUID_3))
+                .andRespond(withServerError());
+
+        given()
+                .contentType(ContentType.JSON)
+                .body(List.of(
+                        MembershipDto.fromModel(membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID)),
+                        MembershipDto.fromModel(membership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID)),
+                        MembershipDto.fromModel(membership(GIANNI_USER_UUID, UUID_3))))
+                .when()
+                .post("/v1/roles/memberships/bulk")
+                .then()
+                .statusCode(200)
+                .body("status", contains(201, 400, 502))
+                .body("[0].membership.teamMemberId", equalTo(GIANNI_USER_UUID.toString()));
+
+        assertThat(membershipRepository.findAll())
+                .extracting(Membership::getUserId, Membership::getTeamId)
+                .containsExactly(tuple(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID));
+    }
+
+    @Test
+    void shouldAnswerUnchangedMembershipSearchWithNotModified() {
+        String etag = searchMemberships(DEVELOPER_ROLE_UUID, null)
+                .statusCode(200)
+                .extract().header(HttpHeaders.ETAG);
+
+        searchMemberships(DEVELOPER_ROLE_UUID, etag)
+                .statusCode(304)
+                .header(HttpHeaders.ETAG, etag);
+
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+        createMembership(DEFAULT_MEMBERSHIP());
+
+        searchMemberships(DEVELOPER_ROLE_UUID, etag)
+                .statusCode(200)
+                .header(HttpHeaders.ETAG, not(etag))
+                .body("size()", equalTo(1));
+    }
+
+    @Test
+    void shouldPageMembershipSearchOnlyWhenAskedTo() {
+        List<String> ids = saveDeveloperMemberships(3);
+
+        searchMemberships(DEVELOPER_ROLE_UUID, null)
+                .statusCode(200)
+                .header(MembershipsRestController.NEXT_CURSOR_HEADER, nullValue())
+                .body("id", containsInAnyOrder(ids.toArray()));
+
+        String cursor = searchMemberships(DEVELOPER_ROLE_UUID, null, 2)
+                .statusCode(200)
+                .header(MembershipsRestController.NEXT_CURSOR_HEADER, ids.get(1))
+                .body("id", contains(ids.get(0), ids.get(1)))
+                .extract().header(MembershipsRestController.NEXT_CURSOR_HEADER);
+
+        given().queryParam("roleId", DEVELOPER_ROLE_UUID)
+                .queryParam("after", cursor)
+                .queryParam("limit", 2)
+                .when()
+                .post("/v1/roles/memberships/search")
+                .then()
+                .statusCode(200)
+                .header(MembershipsRestController.NEXT_CURSOR_HEADER, nullValue())
+                .body("id", contains(ids.get(2)));
+    }
+
+    @Test
+    void shouldStreamMembershipSearch() {
+        List<String> ids = saveDeveloperMemberships(3);
+
+        given().queryParam("roleId", DEVELOPER_ROLE_UUID)
+                .when()
+                .post("/v1/roles/memberships/search/stream")
+                .then()
+                .statusCode(200)
+                .contentType(ContentType.JSON)
+                .body("id", contains(ids.toArray()))
+                .body("roleId", contains(DEVELOPER_ROLE_UUID.toString(), DEVELOPER_ROLE_UUID.toString(),
+                        DEVELOPER_ROLE_UUID.toString()));
+        given().queryParam("roleId", UUID_1)
+                .when()
+                .post("/v1/roles/memberships/search/stream")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    void shouldGetMembershipsOfUserAcrossTeams() {
+        membershipRepository.saveAll(List.of(
+                membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(GIANNI_USER_UUID, UUID_3),
+                membership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID)));
+
+        String etag = getUserMemberships(GIANNI_USER_UUID, null)
+                .statusCode(200)
+                .body("teamMemberId", contains(GIANNI_USER_UUID.toString(), GIANNI_USER_UUID.toString()))
+                .body("teamId",
+                        containsInAnyOrder(ORDINARY_CORAL_LYNX_TEAM_UUID.toString(), UUID_3.toString()))
+                .extract().header(HttpHeaders.ETAG);
+
+        getUserMemberships(GIANNI_USER_UUID, etag)
+                .statusCode(304);
+        getUserMemberships(UUID_1, null)
+                .statusCode(200)
+                .body("size()", equalTo(0));
+    }
+
+    @Test
+    void shouldCheckMembershipRoleAgainstIndex() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        checkMembership(membership.getUserId(), membership.getTeamId(), DEVELOPER_ROLE_UUID)
+                .statusCode(200)
+                .body("granted", equalTo(false));
+
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+        createMembership(membership);
+
+        checkMembership(membership.getUserId(), membership.getTeamId(), DEVELOPER_ROLE_UUID)
+                .statusCode(200)
+                .body("granted", equalTo(true))
+                .body("teamMemberId", equalTo(membership.getUserId().toString()));
+        checkMembership(membership.getUserId(), membership.getTeamId(), UUID_1)
+                .statusCode(200)
+                .body("granted", equalTo(false));
+    }
+
+    @Test
+    void shouldReportOrphanedMembershipsOnDryRun() throws InterruptedException {
+        saveMemberships();
+
+        reconcile(true)
+                .statusCode(200)
+                .body("dryRun", equalTo(true))
+                .body("teamsScanned", equalTo(2))
+                .body("membershipsScanned", equalTo(3))
+                .body("orphansFound", equalTo(2))
+                .body("orphansRemoved", equalTo(0))
+                .body("orphans.teamMemberId",
+                        containsInAnyOrder(UUID_4.toString(), GIANNI_USER_UUID.toString()));
+
+        assertThat(membershipRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRemoveOrphanedMemberships() throws InterruptedException {
+        saveMemberships();
+
+        reconcile(false)
+                .statusCode(200)
+                .body("orphansFound", equalTo(2))
+                .body("orphansRemoved", equalTo(2))
+                .body("teamsFailed", equalTo(0));
+
+        assertThat(membershipRepository.findAll())
+                .extracting(Membership::getUserId, Membership::getTeamId)
+                .containsExactly(tuple(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID));
+        checkMembership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID, DEVELOPER_ROLE_UUID)
+                .statusCode(200)
+                .body("granted", equalTo(false));
+        checkMembership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID, DEVELOPER_ROLE_UUID)
+                .statusCode(200)
+                .body("granted", equalTo(true));
+    }
+
+    @Test
+    void shouldExportMembershipsAsNdjson() throws Exception {
+        List<Membership> saved = membershipRepository.saveAll(List.of(
+                membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(GIANNI_USER_UUID, UUID_3)));
+
+        String body = exportMemberships(null)
+                .statusCode(200)
+                .contentType(startsWith(MembershipsRestController.NDJSON))
+                .extract().asString();
+
+        assertThat(readNdjson(body)).containsExactlyInAnyOrderElementsOf(
+                saved.stream().map(MembershipDto::fromModel).collect(Collectors.toList()));
+        assertThat(readNdjson(body)).extracting(MembershipDto::getId).containsExactlyInAnyOrderElementsOf(
+                saved.stream().map(Membership::getId).collect(Collectors.toList()));
+
+        String team = exportMemberships(ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .statusCode(200)
+                .extract().asString();
+        assertThat(readNdjson(team)).extracting(MembershipDto::getUserId)
+                .containsExactlyInAnyOrder(GIANNI_USER_UUID, UUID_4);
+    }
+
+    @Test
+    void shouldGzipMembershipExport() throws Exception {
+        membershipRepository.save(membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID));
+
+        byte[] body = given()
+                .config(RestAssured.config().decoderConfig(
+                        DecoderConfig.decoderConfig().noContentDecoders()))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .when()
+                .post("/v1/roles/memberships/export")
+                .then()
+                .statusCode(200)
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .extract().asByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(readNdjson(new String(in.readAllBytes(), StandardCharsets.UTF_8)))
+                    .extracting(MembershipDto::getUserId)
+                    .containsExactly(GIANNI_USER_UUID);
+        }
+    }
+
+    @Test
+    void shouldImportMembershipsFromCsv() {
+        membershipRepository.save(membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID));
+        String csv = String.join("\n",
+                "userId,teamId,role",
+                GIANNI_USER_UUID + "," + ORDINARY_CORAL_LYNX_TEAM_UUID + ",Developer",
+                UUID_4 + "," + ORDINARY_CORAL_LYNX_TEAM_UUID + ",Tester",
+                UUID_4 + "," + ORDINARY_CORAL_LYNX_TEAM_UUID + ",Tester",
+                UUID_3 + "," + ORDINARY_CORAL_LYNX_TEAM_UUID + ",Janitor");
+
+        given()
+                .contentType(MembershipsRestController.CSV)
+                .queryParam("name", "csv-" + UUID.randomUUID())
+                .body(csv)
+                .when()
+                .post("/v1/roles/memberships/import")
+                .then()
+                .statusCode(200)
+                .body("linesRead", equalTo(5))
+                .body("created", equalTo(1))
+                .body("duplicates", equalTo(2))
+                .body("invalid", equalTo(1))
+                .body("errors", contains("line 5: unknown role 'Janitor'"));
+
+        assertThat(membershipRepository.findAll())
+                .extracting(Membership::getUserId, m -> m.getRole().getId())
+                .containsExactlyInAnyOrder(
+                        tuple(GIANNI_USER_UUID, DEVELOPER_ROLE_UUID),
+                        tuple(UUID_4, TESTER_ROLE_UUID));
+        checkMembership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID, TESTER_ROLE_UUID)
+                .statusCode(200)
+                .body("granted", equalTo(true));
+    }
+
+    @Test
+    void shouldImportExportedMemberships() {
+        List<Membership> saved = membershipRepository.saveAll(List.of(
+                membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(GIANNI_USER_UUID, UUID_3)));
+        String export = exportMemberships(null)
+                .statusCode(200)
+                .extract().asString();
+        membershipRepository.deleteAll();
+
+        given()
+                .contentType(MembershipsRestController.NDJSON)
+                .queryParam("name", "ndjson-" + UUID.randomUUID())
+                .body(export.getBytes(StandardCharsets.UTF_8))
+                .when()
+                .post("/v1/roles/memberships/import")
+                .then()
+                .statusCode(200)
+                .body("created", equalTo(3))
+                .body("invalid", equalTo(0));
+
+        assertThat(membershipRepository.findAll())
+                .extracting(Membership::getUserId, Membership::getTeamId)
+                .containsExactlyInAnyOrderElementsOf(saved.stream()
+                        .map(m -> tuple(m.getUserId(), m.getTeamId()))
+                        .collect(Collectors.toList()));
+    }
+
+    private ValidatableResponse exportMemberships(UUID teamId) {
+        RequestSpecification request = given();
+        if (teamId != null) {
+            request = request.queryParam("teamId", teamId);
+        }
+        return request.when()
+                .post("/v1/roles/memberships/export")
+                .then();
+    }
+
+    private static List<MembershipDto> readNdjson(String body) throws Exception {
+        List<MembershipDto> memberships = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            memberships.add(new ObjectMapper().readValue(line, MembershipDto.class));
+        }
+        return memberships;
+    }
+
+    // Gianni stays in the team, UUID_4 never was in it and UUID_3 is a team that no longer exists
+    private void saveMemberships() {
+        membershipRepository.saveAll(List.of(
+                membership(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(UUID_4, ORDINARY_CORAL_LYNX_TEAM_UUID),
+                membership(GIANNI_USER_UUID, UUID_3)));
+        membershipIndex.rebuild();
+        // the workers look teams up concurrently, in no particular order
+        mockServer = MockRestServiceServer.bindTo(restTemplate).ignoreExpectOrder(true).build();
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+        mockGetTeamNotFound(mockServer, UUID_3);
+    }
+
+    // ids in the order the search returns them, which compares the binary keys byte by byte
+    private List<String> saveDeveloperMemberships(int count) {
+        List<Membership> memberships = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            memberships.add(membership(UUID.randomUUID(), ORDINARY_CORAL_LYNX_TEAM_UUID));
+        }
+        return membershipRepository.saveAll(memberships).stream()
+                .map(membership -> membership.getId().toString())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private static Membership membership(UUID userId, UUID teamId) {
+        return Membership.builder().role(DEVELOPER_ROLE()).userId(userId).teamId(teamId).build();
+    }
+
+    private ValidatableResponse reconcile(boolean dryRun) throws InterruptedException {
+        given()
+                .queryParam("dryRun", dryRun)
+                .when()
+                .post("/v1/jobs/membership-reconciliation/start")
+                .then()
+                .statusCode(200);
+        for (int i = 0; i < 100; i++) {
+            ValidatableResponse status = when()
+                    .post("/v1/jobs/membership-reconciliation")
+                    .then();
+            if (!status.extract().path("state").equals("RUNNING")) {
+                return status.body("state", equalTo("COMPLETED"));
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Reconciliation did not complete");
+    }
+
+    private ValidatableResponse checkMembership(UUID userId, UUID teamId, UUID roleId) {
+        return given()
+                .queryParam("userId", userId)
+                .queryParam("teamId", teamId)
+                .queryParam("roleId", roleId)
+                .when()
+                .post("/v1/roles/memberships/check")
+                .then();
+    }
+
+    private ValidatableResponse searchMemberships(UUID roleId, String ifNoneMatch) {
+        return searchMemberships(roleId, ifNoneMatch, null);
+    }
+
+    private ValidatableResponse searchMemberships(UUID roleId, String ifNoneMatch, Integer limit) {
+        RequestSpecification request = given().queryParam("roleId", roleId);
+        if (limit != null) {
+            request = request.queryParam("limit", limit);
+        }
+        if (ifNoneMatch != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request.when()
+                .post("/v1/roles/memberships/search")
+                .then();
+    }
+
+    private ValidatableResponse getUserMemberships(UUID userId, String ifNoneMatch) {
+        RequestSpecification request = given().pathParam("userId", userId);
+        if (ifNoneMatch != null) {
+            request = request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request.when()
+                .post("/v1/roles/memberships/users/{userId}")
+                .then();
+    }
+
     private MembershipDto createDefaultMembership() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
         mockGetTeamById(mockServer, expectedMembership.getTeamId(), ORDINARY_CORAL_LYNX_TEAM());
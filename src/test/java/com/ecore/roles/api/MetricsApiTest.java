@@ -0,0 +1,79 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.UUID;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureMetrics
+public class MetricsApiTest {
+
+    private final RestTemplate restTemplate;
+    private final LoadingCache<UUID, Team> teamsCache;
+
+    private MockRestServiceServer mockServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public MetricsApiTest(RestTemplate restTemplate, LoadingCache<UUID, Team> teamsCache) {
+        this.restTemplate = restTemplate;
+        this.teamsCache = teamsCache;
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        RestAssuredHelper.setUp(port);
+        teamsCache.invalidateAll();
+    }
+
+    @Test
+    void shouldPublishLatencyHistogramsPerEndpointAndUpstream() {
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+        given().queryParam("roleId", DEVELOPER_ROLE_UUID)
+                .when()
+                .post("/v1/roles/memberships/search")
+                .then()
+                .statusCode(200);
+        given().pathParam("teamId", ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .when()
+                .post("/v1/teams/{teamId}")
+                .then()
+                .statusCode(200);
+
+        when().get("/actuator/prometheus")
+                .then()
+                .statusCode(200)
+                .body(allOf(
+                        containsString("http_server_requests_seconds_bucket{"
+                                + "application=\"roles\",exception=\"None\",method=\"POST\","
+                                + "outcome=\"SUCCESS\",status=\"200\",uri=\"/v1/roles/memberships/search\","),
+                        containsString("http_client_requests_seconds_bucket{"
+                                + "application=\"roles\",clientName=\"test.com\",method=\"GET\","
+                                + "outcome=\"SUCCESS\",status=\"200\",uri=\"/teams/{id}\","),
+                        containsString("spring_data_repository_invocations_seconds_bucket{"
+                                + "application=\"roles\",exception=\"None\",method=\"findByRoleId\","
+                                + "repository=\"MembershipRepository\",state=\"SUCCESS\",")));
+    }
+}
@@ -0,0 +1,99 @@
+package com.ecore.roles.api;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.utils.RestAssuredHelper;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.restassured.response.ValidatableResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.UUID;
+
+import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static io.restassured.RestAssured.given;
+import static io.restassured.RestAssured.when;
+import static org.hamcrest.Matchers.equalTo;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ResilienceApiTest {
+
+    private final RestTemplate restTemplate;
+    private final LoadingCache<UUID, Team> teamsCache;
+    private final CircuitBreaker teamsCircuitBreaker;
+
+    private MockRestServiceServer mockServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    public ResilienceApiTest(
+            RestTemplate restTemplate,
+            LoadingCache<UUID, Team> teamsCache,
+            CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.restTemplate = restTemplate;
+        this.teamsCache = teamsCache;
+        this.teamsCircuitBreaker = circuitBreakerRegistry.circuitBreaker("teams");
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockServer = MockRestServiceServer.createServer(restTemplate);
+        RestAssuredHelper.setUp(port);
+        teamsCache.invalidateAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        teamsCircuitBreaker.reset();
+    }
+
+    @Test
+    void shouldServeCachedTeamWhileCircuitIsOpen() {
+        mockGetTeamById(mockServer, ORDINARY_CORAL_LYNX_TEAM_UUID, ORDINARY_CORAL_LYNX_TEAM());
+        getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID).statusCode(200);
+
+        teamsCircuitBreaker.transitionToForcedOpenState();
+
+        getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .statusCode(200)
+                .body("id", equalTo(ORDINARY_CORAL_LYNX_TEAM_UUID.toString()));
+    }
+
+    @Test
+    void shouldFailFastWhenCircuitIsOpenAndTeamIsNotCached() {
+        teamsCircuitBreaker.transitionToForcedOpenState();
+
+        getTeam(UUID_1)
+                .statusCode(503)
+                .body("error",
+                        equalTo("CircuitBreaker 'teams' is FORCED_OPEN and does not permit further calls"));
+    }
+
+    @Test
+    void shouldReportCircuitBreakerStateInHealth() {
+        teamsCircuitBreaker.transitionToForcedOpenState();
+
+        when().get("/actuator/health")
+                .then()
+                .body("components.circuitBreakers.details.teams.details.state", equalTo("FORCED_OPEN"));
+    }
+
+    private ValidatableResponse getTeam(UUID teamId) {
+        return given().pathParam("teamId", teamId)
+                .when()
+                .post("/v1/teams/{teamId}")
+                .then();
+    }
+}
@@ -1,19 +1,24 @@
 package com.ecore.roles.api;
 
+import com.ecore.roles.client.model.Team;
 import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.RoleCatalog;
 import com.ecore.roles.repository.RoleRepository;
 import com.ecore.roles.utils.RestAssuredHelper;
 import com.ecore.roles.web.dto.RoleDto;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.Optional;
+import java.util.UUID;
 
 import static com.ecore.roles.utils.MockUtils.mockGetTeamById;
 import static com.ecore.roles.utils.RestAssuredHelper.createMembership;
@@ -30,16 +35,21 @@ import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
 import static com.ecore.roles.utils.TestData.PRODUCT_OWNER_ROLE;
 import static com.ecore.roles.utils.TestData.TESTER_ROLE;
 import static com.ecore.roles.utils.TestData.UUID_1;
+import static io.restassured.RestAssured.given;
 import static io.restassured.RestAssured.when;
 import static java.lang.String.format;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 public class RolesApiTest {
 
     private final RestTemplate restTemplate;
+    private final LoadingCache<UUID, Team> teamsCache;
     private final RoleRepository roleRepository;
+    private final RoleCatalog roleCatalog;
 
     private MockRestServiceServer mockServer;
 
@@ -47,17 +57,25 @@ public class RolesApiTest {
     private int port;
 
     @Autowired
-    public RolesApiTest(RestTemplate restTemplate, RoleRepository roleRepository) {
+    public RolesApiTest(
+            RestTemplate restTemplate,
+            RoleRepository roleRepository,
+            RoleCatalog roleCatalog,
+            LoadingCache<UUID, Team> teamsCache) {
         this.restTemplate = restTemplate;
         this.roleRepository = roleRepository;
+        this.roleCatalog = roleCatalog;
+        this.teamsCache = teamsCache;
     }
 
     @BeforeEach
     void setUp() {
         mockServer = MockRestServiceServer.createServer(restTemplate);
         RestAssuredHelper.setUp(port);
+        teamsCache.invalidateAll();
         Optional<Role> devOpsRole = roleRepository.findByName(DEVOPS_ROLE().getName());
         devOpsRole.ifPresent(roleRepository::delete);
+        roleCatalog.reload();
     }
 
     @Test
@@ -159,4 +177,29 @@ public class RolesApiTest {
         getRole(GIANNI_USER_UUID, UUID_1)
                 .validate(404, format("Team %s not found", UUID_1));
     }
+
+    @Test
+    void shouldAnswerUnchangedRolesWithNotModified() {
+        String etag = given().when().post("/v1/roles")
+                .then()
+                .statusCode(200)
+                .extract().header(HttpHeaders.ETAG);
+
+        given().header(HttpHeaders.IF_NONE_MATCH, etag)
+                .when()
+                .post("/v1/roles")
+                .then()
+                .statusCode(304)
+                .header(HttpHeaders.ETAG, etag);
+
+        createRole(DEVOPS_ROLE());
+
+        given().header(HttpHeaders.IF_NONE_MATCH, etag)
+                .when()
+                .post("/v1/roles")
+                .then()
+                .statusCode(200)
+                .header(HttpHeaders.ETAG, not(etag))
+                .body("name", hasItem(DEVOPS_ROLE().getName()));
+    }
 }
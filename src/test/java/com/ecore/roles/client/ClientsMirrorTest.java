@@ -0,0 +1,145 @@
+package com.ecore.roles.client;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ClientsMirrorTest {
+
+    private static final Instant NOW = Instant.parse("2022-05-01T10:00:00Z");
+
+    @Mock
+    private UsersClient usersClient;
+    @Mock
+    private TeamsClient teamsClient;
+
+    private final ClientsConfigurationProperties properties = new ClientsConfigurationProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClientsMirror clientsMirror;
+
+    @BeforeEach
+    void setUp() {
+        properties.getMirror().setEnabled(true);
+        clientsMirror = new ClientsMirror(usersClient, teamsClient, properties, meterRegistry,
+                Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void shouldPublishSnapshotsAfterSync() {
+        User gianniUser = GIANNI_USER();
+        Team team = ORDINARY_CORAL_LYNX_TEAM();
+        when(usersClient.getUsers()).thenReturn(ResponseEntity.ok(List.of(gianniUser)));
+        when(teamsClient.getTeams()).thenReturn(ResponseEntity.ok(List.of(team)));
+
+        assertTrue(clientsMirror.users().isEmpty());
+        clientsMirror.sync();
+
+        assertEquals(gianniUser, clientsMirror.users().orElseThrow().get(GIANNI_USER_UUID));
+        assertEquals(List.of(team), clientsMirror.teams().orElseThrow().getAll());
+        assertEquals(NOW, clientsMirror.users().orElseThrow().getSyncedAt());
+        assertEquals(0.0, meterRegistry.get("clients.mirror.age").tag("dataset", "users").gauge().value());
+    }
+
+    @Test
+    void shouldCountChangesAndKeepUnchangedInstances() {
+        User gianniUser = GIANNI_USER();
+        User removedUser = User.builder().id(UUID_1).displayName("removed").build();
+        when(usersClient.getUsers())
+                .thenReturn(ResponseEntity.ok(List.of(gianniUser, removedUser)))
+                .thenReturn(ResponseEntity.ok(List.of(GIANNI_USER(),
+                        User.builder().id(UUID_1).displayName("renamed").build())))
+                .thenReturn(ResponseEntity.ok(List.of(GIANNI_USER())));
+        when(teamsClient.getTeams()).thenReturn(ResponseEntity.ok(List.of()));
+
+        clientsMirror.sync();
+        clientsMirror.sync();
+        clientsMirror.sync();
+
+        assertSame(gianniUser, clientsMirror.users().orElseThrow().get(GIANNI_USER_UUID));
+        assertEquals(1, clientsMirror.users().orElseThrow().size());
+        assertEquals(2.0, changes("added"));
+        assertEquals(1.0, changes("updated"));
+        assertEquals(1.0, changes("removed"));
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenSyncFails() {
+        User gianniUser = GIANNI_USER();
+        when(usersClient.getUsers())
+                .thenReturn(ResponseEntity.ok(List.of(gianniUser)))
+                .thenThrow(new ResourceAccessException("Users API unavailable"));
+        when(teamsClient.getTeams()).thenReturn(ResponseEntity.ok(List.of()));
+
+        clientsMirror.sync();
+        clientsMirror.sync();
+
+        assertEquals(List.of(gianniUser), clientsMirror.users().orElseThrow().getAll());
+        assertEquals(1.0, meterRegistry.get("clients.mirror.sync.failures").tag("dataset", "users")
+                .counter().count());
+    }
+
+    @Test
+    void shouldKeepPreviousSnapshotWhenUpstreamReturnsNoBody() {
+        User gianniUser = GIANNI_USER();
+        when(usersClient.getUsers())
+                .thenReturn(ResponseEntity.ok(List.of(gianniUser)))
+                .thenReturn(ResponseEntity.ok(null));
+        when(teamsClient.getTeams()).thenReturn(ResponseEntity.ok(null));
+
+        clientsMirror.sync();
+        clientsMirror.sync();
+
+        assertEquals(List.of(gianniUser), clientsMirror.users().orElseThrow().getAll());
+        assertTrue(clientsMirror.teams().isEmpty());
+        assertEquals(1.0, meterRegistry.get("clients.mirror.sync.failures").tag("dataset", "users")
+                .counter().count());
+        assertEquals(0.0, changes("removed"));
+    }
+
+    @Test
+    void shouldNotSyncWhenDisabled() {
+        properties.getMirror().setEnabled(false);
+        clientsMirror = new ClientsMirror(usersClient, teamsClient, properties, new SimpleMeterRegistry(),
+                Clock.fixed(NOW, ZoneOffset.UTC));
+
+        clientsMirror.sync();
+
+        assertTrue(clientsMirror.users().isEmpty());
+        assertTrue(clientsMirror.teams().isEmpty());
+        verifyNoInteractions(usersClient, teamsClient);
+    }
+
+    private double changes(String change) {
+        return meterRegistry.get("clients.mirror.changes")
+                .tag("dataset", "users")
+                .tag("change", change)
+                .counter()
+                .count();
+    }
+}
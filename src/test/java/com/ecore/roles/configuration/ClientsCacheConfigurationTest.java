@@ -0,0 +1,91 @@
+package com.ecore.roles.configuration;
+
+import com.ecore.roles.client.TeamsClient;
+import com.ecore.roles.client.UsersClient;
+import com.ecore.roles.client.model.Team;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClientsCacheConfigurationTest {
+
+    private static final int CALLERS = 16;
+
+    private final TeamsClient teamsClient = mock(TeamsClient.class);
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ThreadingConfiguration.class, ClientsCacheConfiguration.class)
+            .withBean(TeamsClient.class, () -> teamsClient)
+            .withBean(UsersClient.class, () -> mock(UsersClient.class))
+            .withBean(ClientsConfigurationProperties.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new);
+
+    @Test
+    void shouldLoadATeamOnceForConcurrentMisses() {
+        slowTeamsApi();
+
+        contextRunner.run(context -> assertConcurrentMissesLoadOnce(context));
+    }
+
+    @Test
+    void shouldLoadATeamOnceForConcurrentMissesOnVirtualThreads() {
+        assumeTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21");
+        slowTeamsApi();
+
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertConcurrentMissesLoadOnce(context));
+    }
+
+    private void slowTeamsApi() {
+        when(teamsClient.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenAnswer(invocation -> {
+            Thread.sleep(200);
+            return ResponseEntity.ok(ORDINARY_CORAL_LYNX_TEAM());
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private void assertConcurrentMissesLoadOnce(ApplicationContext context) throws Exception {
+        LoadingCache<UUID, Team> teamsCache = context.getBean("teamsCache", LoadingCache.class);
+        ExecutorService callers = Executors.newFixedThreadPool(CALLERS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Team>> teams = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                teams.add(callers.submit(() -> {
+                    start.await();
+                    return teamsCache.get(ORDINARY_CORAL_LYNX_TEAM_UUID);
+                }));
+            }
+            start.countDown();
+
+            for (Future<Team> team : teams) {
+                assertThat(team.get(5, TimeUnit.SECONDS).getId()).isEqualTo(ORDINARY_CORAL_LYNX_TEAM_UUID);
+            }
+            verify(teamsClient, times(1)).getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecore.roles.configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RestTemplateConfigurationTest {
+
+    private final RestTemplateConfiguration configuration = new RestTemplateConfiguration();
+    private final ClientsConfigurationProperties properties = new ClientsConfigurationProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PoolingHttpClientConnectionManager connectionManager;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() {
+        properties.getHttp().setMaxConnections(20);
+        properties.getHttp().setMaxConnectionsPerRoute(5);
+        properties.getHttp().setReadTimeout(Duration.ofMillis(200));
+        connectionManager = configuration.clientsConnectionManager(properties, meterRegistry);
+        httpClient = configuration.clientsHttpClient(connectionManager, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        httpClient.close();
+    }
+
+    @Test
+    void shouldSizeThePoolFromTheProperties() {
+        assertThat(connectionManager.getMaxTotal()).isEqualTo(20);
+        assertThat(connectionManager.getDefaultMaxPerRoute()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldPublishPoolMetrics() {
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", "clients")
+                .gauge()
+                .value()).isEqualTo(20);
+        assertThat(meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "clients")
+                .tag("state", "leased")
+                .gauge()
+                .value()).isZero();
+    }
+
+    @Test
+    void shouldGiveUpOnAnUpstreamThatDoesNotAnswer() throws Exception {
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread acceptor = new Thread(() -> {
+                try (Socket ignored = server.accept()) {
+                    Thread.sleep(5_000);
+                } catch (Exception e) {
+                    // the client gave up
+                }
+            });
+            acceptor.setDaemon(true);
+            acceptor.start();
+
+            long started = System.nanoTime();
+            assertThatThrownBy(
+                    () -> httpClient.execute(new HttpGet("http://localhost:" + server.getLocalPort())))
+                            .isInstanceOf(SocketTimeoutException.class);
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+            acceptor.interrupt();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecore.roles.configuration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+
+import static com.ecore.roles.configuration.ThreadingConfiguration.VIRTUAL_THREAD_EXECUTOR;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ThreadingConfigurationTest {
+
+    private static final int JAVA_VERSION = Runtime.version().feature();
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(ThreadingConfiguration.class);
+
+    @Test
+    void shouldKeepPlatformThreadsByDefault() {
+        contextRunner.run(context -> {
+            assertThat(context).doesNotHaveBean(VIRTUAL_THREAD_EXECUTOR);
+            assertThat(context).doesNotHaveBean(TomcatProtocolHandlerCustomizer.class);
+            assertThat(threadName(context.getBean(Scheduler.class))).startsWith("boundedElastic-");
+        });
+    }
+
+    @Test
+    void shouldRunBlockingWorkOnVirtualThreadsWhenEnabled() {
+        assumeTrue(JAVA_VERSION >= 21, "virtual threads need Java 21");
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            assertThat(context).hasBean(VIRTUAL_THREAD_EXECUTOR);
+            assertThat(context).hasSingleBean(TomcatProtocolHandlerCustomizer.class);
+            assertThat(threadName(context.getBean(Scheduler.class))).startsWith("virtual-");
+        });
+    }
+
+    @Test
+    void shouldFailToStartWhenEnabledOnJdksWithoutVirtualThreads() {
+        assumeTrue(JAVA_VERSION < 21, "virtual threads are available");
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true")
+                .run(context -> assertThat(context)
+                        .getFailure()
+                        .hasStackTraceContaining("Virtual threads are not available on Java " + JAVA_VERSION
+                                + ", they require Java 21 or later"));
+    }
+
+    private static String threadName(Scheduler scheduler) {
+        return Mono.fromCallable(() -> Thread.currentThread().getName())
+                .subscribeOn(scheduler)
+                .block(Duration.ofSeconds(5));
+    }
+}
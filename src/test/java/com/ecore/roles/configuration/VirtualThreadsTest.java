@@ -0,0 +1,39 @@
+package com.ecore.roles.configuration;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+
+    private static final int JAVA_VERSION = Runtime.version().feature();
+
+    @Test
+    void shouldRunTasksOnNamedVirtualThreads() throws Exception {
+        assumeTrue(JAVA_VERSION >= 21, "virtual threads need Java 21");
+        ExecutorService executor = VirtualThreads.newExecutor("test-");
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(5, TimeUnit.SECONDS);
+
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(true);
+            assertThat(thread.getName()).isEqualTo("test-0");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void shouldFailOnJdksWithoutVirtualThreads() {
+        assumeTrue(JAVA_VERSION < 21, "virtual threads are available");
+
+        assertThatThrownBy(() -> VirtualThreads.newExecutor("test-"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Virtual threads are not available on Java " + JAVA_VERSION
+                        + ", they require Java 21 or later");
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.configuration.AuditConfigurationProperties;
+import com.ecore.roles.configuration.AuditConfigurationProperties.Durability;
+import com.ecore.roles.model.AuditEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private final AuditConfigurationProperties properties = new AuditConfigurationProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuditLog auditLog;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (auditLog != null) {
+            auditLog.stop();
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldWriteQueuedEventsInOneBatch() throws InterruptedException {
+        auditLog = auditLog();
+        auditLog.record(AuditEvent.roleCreated(DEVELOPER_ROLE()));
+        auditLog.record(List.of(
+                AuditEvent.membershipCreated(DEFAULT_MEMBERSHIP()),
+                AuditEvent.membershipCreated(DEFAULT_MEMBERSHIP())));
+
+        auditLog.writeBatch(0);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertEquals(3, rows.getValue().size());
+        assertEquals("ROLE_CREATED", rows.getValue().get(0)[1]);
+        assertEquals("{\"name\":\"Developer\"}", rows.getValue().get(0)[3]);
+        assertEquals(3.0, meterRegistry.counter("audit.events.written").count());
+        assertEquals(0.0, meterRegistry.get("audit.queue.depth").gauge().value());
+    }
+
+    @Test
+    void shouldDropEventsThatDoNotFitInTheQueue() {
+        properties.setQueueCapacity(2);
+        auditLog = auditLog();
+
+        auditLog.record(List.of(
+                AuditEvent.roleCreated(DEVELOPER_ROLE()),
+                AuditEvent.roleCreated(DEVELOPER_ROLE()),
+                AuditEvent.roleCreated(DEVELOPER_ROLE())));
+
+        assertEquals(1.0, meterRegistry.counter("audit.events.dropped").count());
+        assertEquals(2.0, meterRegistry.get("audit.queue.depth").gauge().value());
+    }
+
+    @Test
+    void shouldCountEventsOfFailedBatches() throws InterruptedException {
+        auditLog = auditLog();
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        auditLog.record(AuditEvent.roleCreated(DEVELOPER_ROLE()));
+
+        auditLog.writeBatch(0);
+
+        assertEquals(1.0, meterRegistry.counter("audit.events.failed").count());
+        assertEquals(0.0, meterRegistry.counter("audit.events.written").count());
+    }
+
+    @Test
+    void shouldReturnOnlyOnceWrittenWhenWaitingForWrite() {
+        properties.setDurability(Durability.WAIT_FOR_WRITE);
+        auditLog = auditLog();
+        auditLog.start();
+
+        auditLog.record(AuditEvent.roleCreated(DEVELOPER_ROLE()));
+
+        verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        assertEquals(1.0, meterRegistry.counter("audit.events.written").count());
+    }
+
+    @Test
+    void shouldIgnoreEventsWhenDisabled() throws InterruptedException {
+        properties.setEnabled(false);
+        auditLog = auditLog();
+
+        auditLog.record(AuditEvent.roleCreated(DEVELOPER_ROLE()));
+        auditLog.writeBatch(0);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(0.0, meterRegistry.get("audit.queue.depth").gauge().value());
+    }
+
+    private AuditLog auditLog() {
+        return new AuditLog(jdbcTemplate, new ObjectMapper(), properties, meterRegistry);
+    }
+}
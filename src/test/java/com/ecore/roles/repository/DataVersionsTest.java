@@ -0,0 +1,97 @@
+package com.ecore.roles.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static com.ecore.roles.repository.DataVersions.Dataset.MEMBERSHIPS;
+import static com.ecore.roles.repository.DataVersions.Dataset.ROLES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataVersionsTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DataVersions dataVersions;
+    private DataVersions otherInstance;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=100", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        dataVersions = new DataVersions(jdbcTemplate, transactionManager, dataSource);
+        otherInstance = new DataVersions(jdbcTemplate, transactionManager, dataSource);
+        dataVersions.refresh();
+        otherInstance.refresh();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void shouldShareCommittedVersionsBetweenInstances() {
+        String etag = otherInstance.etag(MEMBERSHIPS);
+
+        transactionTemplate.executeWithoutResult(status -> dataVersions.changed(MEMBERSHIPS));
+
+        assertThat(dataVersions.version(MEMBERSHIPS)).isEqualTo(1);
+        assertThat(otherInstance.etag(MEMBERSHIPS)).isEqualTo(etag);
+        otherInstance.refresh();
+        assertThat(otherInstance.version(MEMBERSHIPS)).isEqualTo(1);
+        assertThat(otherInstance.version(ROLES)).isZero();
+        assertThat(otherInstance.etag(MEMBERSHIPS)).isNotEqualTo(etag)
+                .isEqualTo(dataVersions.etag(MEMBERSHIPS));
+    }
+
+    @Test
+    void shouldNotBumpVersionOfRolledBackWrite() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dataVersions.changed(ROLES);
+            status.setRollbackOnly();
+        });
+
+        assertThat(dataVersions.load(ROLES)).isZero();
+        assertThat(dataVersions.version(ROLES)).isZero();
+    }
+
+    @Test
+    void shouldNotLockTheVersionRowWhileTheWriteIsOpen() {
+        transactionTemplate.executeWithoutResult(status -> {
+            dataVersions.changed(MEMBERSHIPS);
+
+            // would time out if the open write held the row
+            otherInstance.changed(MEMBERSHIPS);
+        });
+
+        assertThat(dataVersions.load(MEMBERSHIPS)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldTellOwnChangesFromChangesMadeElsewhere() {
+        long loaded = dataVersions.load(MEMBERSHIPS);
+
+        dataVersions.changed(MEMBERSHIPS);
+        dataVersions.refresh();
+        assertThat(dataVersions.changedElsewhere(MEMBERSHIPS, loaded)).isFalse();
+
+        otherInstance.changed(MEMBERSHIPS);
+        dataVersions.refresh();
+        assertThat(dataVersions.changedElsewhere(MEMBERSHIPS, loaded)).isTrue();
+        assertThat(dataVersions.changedElsewhere(MEMBERSHIPS, dataVersions.version(MEMBERSHIPS))).isFalse();
+    }
+
+    @Test
+    void shouldTagReadsWithTheStoredVersion() {
+        jdbcTemplate.update("update data_version set version = 7 where dataset = 'ROLES'");
+
+        assertThat(dataVersions.<String>readTagged(etag -> etag, ROLES, MEMBERSHIPS)).isEqualTo("\"7-0\"");
+        assertThat(dataVersions.etag(ROLES, MEMBERSHIPS)).isEqualTo("\"0-0\"");
+    }
+}
@@ -0,0 +1,197 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipGrant;
+import com.ecore.roles.model.MembershipKey;
+import com.ecore.roles.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.ecore.roles.repository.DataVersions.Dataset.MEMBERSHIPS;
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipIndexTest {
+
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private DataVersions dataVersions;
+
+    private MembershipIndex membershipIndex;
+
+    @BeforeEach
+    void setUp() {
+        when(membershipRepository.streamGrants()).thenReturn(Stream.of(
+                new MembershipGrant(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID, DEVELOPER_ROLE_UUID)));
+        membershipIndex =
+                new MembershipIndex(membershipRepository, TransactionOperations.withoutTransaction(),
+                        dataVersions);
+        membershipIndex.rebuild();
+    }
+
+    @Test
+    void shouldAnswerFromLoadedMemberships() {
+        assertEquals(Optional.of(DEVELOPER_ROLE_UUID),
+                membershipIndex.findRoleId(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID));
+        assertTrue(membershipIndex.hasRole(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID,
+                DEVELOPER_ROLE_UUID));
+        assertFalse(membershipIndex.hasRole(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+        assertFalse(membershipIndex.hasRole(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID,
+                DEVELOPER_ROLE_UUID));
+        assertEquals(Optional.empty(), membershipIndex.findRoleId(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID));
+    }
+
+    @Test
+    void shouldIndexAddedMemberships() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        membership.setUserId(UUID_2);
+        membership.setRole(Role.builder().id(UUID_1).build());
+
+        membershipIndex.added(membership);
+
+        assertTrue(membershipIndex.hasRole(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+        assertTrue(membershipIndex.hasRole(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID,
+                DEVELOPER_ROLE_UUID));
+        assertEquals(2, membershipIndex.size());
+    }
+
+    @Test
+    void shouldKeepAllMembershipsWhenGrowing() {
+        List<Membership> memberships = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            memberships.add(Membership.builder()
+                    .teamId(UUID.randomUUID())
+                    .userId(UUID.randomUUID())
+                    .role(Role.builder().id(i % 2 == 0 ? DEVELOPER_ROLE_UUID : UUID_1).build())
+                    .build());
+        }
+
+        membershipIndex.added(memberships);
+
+        assertEquals(10_001, membershipIndex.size());
+        for (Membership m : memberships) {
+            assertEquals(Optional.of(m.getRole().getId()),
+                    membershipIndex.findRoleId(m.getUserId(), m.getTeamId()));
+        }
+        assertTrue(membershipIndex.hasRole(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID,
+                DEVELOPER_ROLE_UUID));
+    }
+
+    @Test
+    void shouldKeepCollidingMembershipsReachableAfterRemoval() {
+        List<Membership> memberships = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            memberships.add(Membership.builder()
+                    .teamId(UUID.randomUUID())
+                    .userId(UUID.randomUUID())
+                    .role(Role.builder().id(DEVELOPER_ROLE_UUID).build())
+                    .build());
+        }
+        membershipIndex.added(memberships);
+        List<Membership> removed = memberships.subList(0, 2_500);
+
+        membershipIndex.removed(removed.stream().map(MembershipKey::of).collect(Collectors.toList()));
+
+        assertEquals(2_501, membershipIndex.size());
+        for (Membership m : removed) {
+            assertEquals(Optional.empty(), membershipIndex.findRoleId(m.getUserId(), m.getTeamId()));
+        }
+        for (Membership m : memberships.subList(2_500, 5_000)) {
+            assertTrue(membershipIndex.hasRole(m.getUserId(), m.getTeamId(), DEVELOPER_ROLE_UUID));
+        }
+        assertTrue(membershipIndex.hasRole(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID,
+                DEVELOPER_ROLE_UUID));
+    }
+
+    @Test
+    void shouldReloadWhenMembershipsChangedElsewhere() {
+        when(membershipRepository.streamGrants()).thenReturn(Stream.of(
+                new MembershipGrant(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_2, UUID_1)));
+
+        membershipIndex.refresh();
+        assertFalse(membershipIndex.hasRole(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+
+        when(dataVersions.changedElsewhere(MEMBERSHIPS, 0L)).thenReturn(true);
+        membershipIndex.refresh();
+
+        assertTrue(membershipIndex.hasRole(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+        assertEquals(1, membershipIndex.size());
+    }
+
+    @Test
+    void shouldNotReloadForItsOwnWrites() {
+        membershipIndex.added(Membership.builder()
+                .teamId(ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .userId(UUID_2)
+                .role(Role.builder().id(UUID_1).build())
+                .build());
+
+        membershipIndex.refresh();
+
+        assertTrue(membershipIndex.hasRole(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+        verify(membershipRepository, times(1)).streamGrants();
+    }
+
+    @Test
+    void shouldReplayWritesMadeDuringRebuild() {
+        Membership added = Membership.builder()
+                .teamId(ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .userId(UUID_2)
+                .role(Role.builder().id(UUID_1).build())
+                .build();
+        when(membershipRepository.streamGrants()).thenAnswer(invocation -> {
+            // committed after the scan read the table
+            membershipIndex.added(added);
+            membershipIndex
+                    .removed(List.of(new MembershipKey(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID)));
+            return Stream.of(
+                    new MembershipGrant(ORDINARY_CORAL_LYNX_TEAM_UUID, GIANNI_USER_UUID,
+                            DEVELOPER_ROLE_UUID));
+        });
+
+        membershipIndex.rebuild();
+
+        assertTrue(membershipIndex.hasRole(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+        assertFalse(membershipIndex.hasRole(GIANNI_USER_UUID, ORDINARY_CORAL_LYNX_TEAM_UUID,
+                DEVELOPER_ROLE_UUID));
+        assertEquals(1, membershipIndex.size());
+    }
+
+    @Test
+    void shouldReplaceContentOnRebuild() {
+        membershipIndex.added(Membership.builder()
+                .teamId(ORDINARY_CORAL_LYNX_TEAM_UUID)
+                .userId(UUID_2)
+                .role(Role.builder().id(UUID_1).build())
+                .build());
+        when(membershipRepository.streamGrants()).thenReturn(Stream.empty());
+
+        membershipIndex.rebuild();
+
+        assertEquals(0, membershipIndex.size());
+        assertFalse(membershipIndex.hasRole(UUID_2, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_1));
+    }
+}
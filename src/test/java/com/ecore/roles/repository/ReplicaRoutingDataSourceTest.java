@@ -0,0 +1,199 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.service.MembershipsService;
+import com.ecore.roles.web.dto.MembershipDto;
+import com.ecore.roles.web.rest.MembershipsRestController;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static com.ecore.roles.configuration.ReplicaDataSourceConfiguration.PRIMARY_DATA_SOURCE;
+import static com.ecore.roles.configuration.ReplicaDataSourceConfiguration.REPLICA_DATA_SOURCE;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary",
+        "replica.enabled=true",
+        "replica.datasource.url=" + ReplicaRoutingDataSourceTest.REPLICA_URL,
+        "replica.datasource.username=sa",
+        "replica.max-lag=5s",
+        "replica.heartbeat-interval=1h"
+})
+class ReplicaRoutingDataSourceTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    private final MembershipsService membershipsService;
+    private final MembershipsRestController membershipsRestController;
+    private final ReplicationLagMonitor lagMonitor;
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+
+    @Autowired
+    ReplicaRoutingDataSourceTest(
+            MembershipsService membershipsService,
+            MembershipsRestController membershipsRestController,
+            ReplicationLagMonitor lagMonitor,
+            @Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+            @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource) {
+        this.membershipsService = membershipsService;
+        this.membershipsRestController = membershipsRestController;
+        this.lagMonitor = lagMonitor;
+        this.primary = new JdbcTemplate(primaryDataSource);
+        this.replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    /**
+     * Flyway only migrates the primary, so the test creates the replica's schema once the replica pool
+     * exists.
+     */
+    @TestConfiguration
+    static class ReplicaSchema {
+
+        @Bean
+        InitializingBean replicaMigration(@Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource) {
+            return () -> Flyway.configure().dataSource(replicaDataSource).load().migrate();
+        }
+    }
+
+    @Test
+    void shouldServeReadOnlyCallsFromTheReplica() {
+        Membership membership = membership();
+        new MembershipBatchInserter(replica).insert(List.of(membership));
+        replicateHeartbeat(Instant.now());
+
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+        assertThat(ids(membershipsService.getTeamMemberships(membership.getTeamId())))
+                .containsExactly(membership.getId());
+    }
+
+    @Test
+    void shouldSendWritesToThePrimary() {
+        replicateHeartbeat(Instant.now());
+        Membership membership = membership();
+        membership.setId(null);
+
+        membershipsService.importMemberships(List.of(membership));
+
+        assertThat(count(primary, membership.getTeamId())).isEqualTo(1);
+        assertThat(count(replica, membership.getTeamId())).isZero();
+    }
+
+    @Test
+    void shouldReadFromThePrimaryWhileTheReplicaLags() {
+        Membership membership = membership();
+        new MembershipBatchInserter(replica).insert(List.of(membership));
+        replicateHeartbeat(Instant.now().minus(Duration.ofMinutes(1)));
+
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+        assertThat(membershipsService.getTeamMemberships(membership.getTeamId())).isEmpty();
+    }
+
+    @Test
+    void shouldReadTheEtagFromTheDatabaseThatServesTheBody() {
+        Membership membership = membership();
+        new MembershipBatchInserter(replica).insert(List.of(membership));
+        replica.update("update data_version set version = version + 100 where dataset = 'MEMBERSHIPS'");
+        replicateHeartbeat(Instant.now());
+
+        ResponseEntity<List<MembershipDto>> response =
+                membershipsRestController.getUserMemberships(membership.getUserId(), null);
+
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag(replica));
+        assertThat(response.getBody()).extracting(MembershipDto::getId).containsExactly(membership.getId());
+    }
+
+    @Test
+    void shouldStreamRoleSearchFromThePrimary() throws IOException {
+        Membership membership = membership();
+        new MembershipBatchInserter(replica).insert(List.of(membership));
+        replicateHeartbeat(Instant.now());
+
+        ResponseEntity<StreamingResponseBody> response =
+                membershipsRestController.streamMemberships(DEVELOPER_ROLE_UUID, null);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        response.getBody().writeTo(body);
+
+        assertThat(response.getHeaders().getETag()).isEqualTo(etag(primary));
+        assertThat(body.toString(UTF_8)).doesNotContain(membership.getId().toString());
+    }
+
+    @Test
+    void shouldMeasureLagAgainstThePrimaryHeartbeat() {
+        Instant lastBeat = Instant.now().minus(Duration.ofMinutes(1));
+
+        replicateHeartbeat(lastBeat, lastBeat);
+        assertThat(lagMonitor.isReplicaUsable()).isTrue();
+
+        replicateHeartbeat(lastBeat.plus(Duration.ofSeconds(10)), lastBeat);
+        assertThat(lagMonitor.isReplicaUsable()).isFalse();
+    }
+
+    @Test
+    void shouldWriteTheHeartbeatToThePrimary() {
+        Instant before = Instant.now().minusMillis(1);
+
+        lagMonitor.beat();
+
+        assertThat(
+                primary.queryForObject("select beat_at from replica_heartbeat where id = 1", Timestamp.class))
+                        .isAfter(Timestamp.from(before));
+    }
+
+    private void replicateHeartbeat(Instant beatAt) {
+        replicateHeartbeat(Instant.now(), beatAt);
+    }
+
+    private void replicateHeartbeat(Instant primaryBeatAt, Instant replicaBeatAt) {
+        primary.update("update replica_heartbeat set beat_at = ? where id = 1",
+                Timestamp.from(primaryBeatAt));
+        replica.update("update replica_heartbeat set beat_at = ? where id = 1",
+                Timestamp.from(replicaBeatAt));
+        lagMonitor.check();
+    }
+
+    private static Membership membership() {
+        return Membership.builder()
+                .id(UUID.randomUUID())
+                .role(DEVELOPER_ROLE())
+                .teamId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .build();
+    }
+
+    private static String etag(JdbcTemplate jdbcTemplate) {
+        return "\"" + jdbcTemplate.queryForObject(
+                "select version from data_version where dataset = 'MEMBERSHIPS'", Long.class) + "\"";
+    }
+
+    private static int count(JdbcTemplate jdbcTemplate, UUID teamId) {
+        return jdbcTemplate.queryForObject("select count(*) from membership where team_id = ?", Integer.class,
+                UuidBytes.of(teamId));
+    }
+
+    private static List<UUID> ids(List<Membership> memberships) {
+        return memberships.stream().map(Membership::getId).collect(toList());
+    }
+}
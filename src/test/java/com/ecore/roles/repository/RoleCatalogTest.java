@@ -0,0 +1,129 @@
+package com.ecore.roles.repository;
+
+import com.ecore.roles.model.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.ecore.roles.repository.DataVersions.Dataset.ROLES;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.DEVOPS_ROLE;
+import static com.ecore.roles.utils.TestData.PRODUCT_OWNER_ROLE;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RoleCatalogTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+    @Mock
+    private DataVersions dataVersions;
+
+    private RoleCatalog roleCatalog;
+
+    private final Role developerRole = DEVELOPER_ROLE();
+
+    @BeforeEach
+    void setUp() {
+        when(roleRepository.findAll()).thenReturn(List.of(developerRole));
+        roleCatalog = new RoleCatalog(roleRepository, dataVersions);
+        roleCatalog.reload();
+    }
+
+    @Test
+    void shouldServeLoadedRolesWithoutQueryingTheRepository() {
+        assertEquals(Optional.of(developerRole), roleCatalog.findById(developerRole.getId()));
+        assertEquals(Optional.of(developerRole), roleCatalog.findByName(developerRole.getName()));
+        verify(roleRepository, times(0)).findById(developerRole.getId());
+        verify(roleRepository, times(0)).findByName(developerRole.getName());
+    }
+
+    @Test
+    void shouldIndexSavedRoles() {
+        Role devOpsRole = DEVOPS_ROLE();
+        devOpsRole.setId(UUID_1);
+        when(roleRepository.save(devOpsRole)).thenReturn(devOpsRole);
+
+        roleCatalog.save(devOpsRole);
+
+        assertEquals(Optional.of(devOpsRole), roleCatalog.findById(UUID_1));
+        assertEquals(Optional.of(devOpsRole), roleCatalog.findByName(devOpsRole.getName()));
+        assertEquals(2, roleCatalog.findAll().size());
+        verify(dataVersions).bump(ROLES);
+    }
+
+    @Test
+    void shouldMoveTheVersionWithRolesSavedHere() {
+        Role devOpsRole = DEVOPS_ROLE();
+        devOpsRole.setId(UUID_1);
+        when(roleRepository.save(devOpsRole)).thenReturn(devOpsRole);
+        when(dataVersions.bump(ROLES)).thenReturn(1L);
+        when(dataVersions.version(ROLES)).thenReturn(1L);
+
+        roleCatalog.save(devOpsRole);
+
+        assertEquals(1, roleCatalog.version());
+        assertEquals(List.of(developerRole, devOpsRole), roleCatalog.findAll());
+        verify(roleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void shouldPublishSavedRolesOnlyOnceCommitted() {
+        Role devOpsRole = DEVOPS_ROLE();
+        devOpsRole.setId(UUID_1);
+        when(roleRepository.save(devOpsRole)).thenReturn(devOpsRole);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            roleCatalog.save(devOpsRole);
+
+            assertEquals(Optional.empty(), roleCatalog.findById(UUID_1));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(Optional.of(devOpsRole), roleCatalog.findById(UUID_1));
+    }
+
+    @Test
+    void shouldReloadWhenRolesChangedOnAnotherInstance() {
+        Role devOpsRole = DEVOPS_ROLE();
+        devOpsRole.setId(UUID_1);
+        when(dataVersions.version(ROLES)).thenReturn(1L);
+        when(dataVersions.load(ROLES)).thenReturn(1L);
+        when(roleRepository.findAll()).thenReturn(List.of(developerRole, devOpsRole));
+
+        assertEquals(List.of(developerRole, devOpsRole), roleCatalog.findAll());
+        assertEquals(List.of(developerRole, devOpsRole), roleCatalog.findAll());
+        assertEquals(1, roleCatalog.version());
+        verify(roleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void shouldFallBackToTheRepositoryOnMiss() {
+        Role productOwnerRole = PRODUCT_OWNER_ROLE();
+        when(roleRepository.findById(productOwnerRole.getId())).thenReturn(Optional.of(productOwnerRole));
+
+        assertEquals(Optional.of(productOwnerRole), roleCatalog.findById(productOwnerRole.getId()));
+        assertEquals(Optional.of(productOwnerRole), roleCatalog.findById(productOwnerRole.getId()));
+        verify(roleRepository, times(1)).findById(productOwnerRole.getId());
+    }
+
+    @Test
+    void shouldReturnEmptyWhenRoleDoesNotExist() {
+        assertTrue(roleCatalog.findById(UUID_1).isEmpty());
+    }
+}
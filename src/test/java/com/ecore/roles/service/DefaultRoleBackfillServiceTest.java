@@ -0,0 +1,137 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.JobsConfigurationProperties;
+import com.ecore.roles.model.JobCheckpoint;
+import com.ecore.roles.model.JobStatus;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.JobCheckpointRepository;
+import com.ecore.roles.service.impl.DefaultRoleBackfillServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static com.ecore.roles.service.DefaultRoleBackfillService.JOB_NAME;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultRoleBackfillServiceTest {
+
+    @Mock
+    private TeamsService teamsService;
+    @Mock
+    private RolesService rolesService;
+    @Mock
+    private MembershipsService membershipsService;
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Role developerRole = DEVELOPER_ROLE();
+    private final Team team1 = team(UUID_1);
+    private final Team team2 = team(UUID_2);
+    private final Team team3 = team(UUID_3);
+
+    private DefaultRoleBackfillServiceImpl backfill;
+
+    @BeforeEach
+    void setUp() {
+        JobsConfigurationProperties properties = new JobsConfigurationProperties();
+        properties.getDefaultRoleBackfill().setChunkSize(2);
+        properties.getDefaultRoleBackfill().setDelayBetweenChunks(Duration.ZERO);
+        backfill = new DefaultRoleBackfillServiceImpl(teamsService, rolesService, membershipsService,
+                jobCheckpointRepository, properties, meterRegistry);
+        when(rolesService.GetDefaultRole()).thenReturn(developerRole);
+        when(teamsService.getTeams()).thenReturn(List.of(team3, team1, team2));
+        lenient().when(jobCheckpointRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void shouldBackfillTeamsInIdOrderAndChunks() {
+        when(jobCheckpointRepository.findById(JOB_NAME)).thenReturn(Optional.empty());
+        when(membershipsService.assignMissingMemberships(developerRole, List.of(team1, team2)))
+                .thenReturn(List.of(new Membership(), new Membership()));
+        when(membershipsService.assignMissingMemberships(developerRole, List.of(team3)))
+                .thenReturn(List.of(new Membership()));
+
+        backfill.run();
+
+        JobStatus status = backfill.getStatus();
+        assertEquals(JobStatus.State.COMPLETED, status.getState());
+        assertEquals(3, status.getTotalItems());
+        assertEquals(3, status.getProcessedItems());
+        assertEquals(3, status.getCreated());
+        assertEquals(UUID_3, status.getLastKey());
+        assertEquals(3.0, meterRegistry.counter("jobs.created", "job", JOB_NAME).count());
+        // one checkpoint per chunk, then the completion
+        verify(jobCheckpointRepository, times(3)).save(any());
+    }
+
+    @Test
+    void shouldResumeAfterCheckpointOfUnfinishedRun() {
+        when(jobCheckpointRepository.findById(JOB_NAME)).thenReturn(Optional.of(JobCheckpoint.builder()
+                .name(JOB_NAME).lastKey(UUID_2).processed(2).created(5).updatedAt(Instant.now()).build()));
+        when(membershipsService.assignMissingMemberships(developerRole, List.of(team3)))
+                .thenReturn(List.of(new Membership()));
+
+        backfill.run();
+
+        JobStatus status = backfill.getStatus();
+        assertEquals(JobStatus.State.COMPLETED, status.getState());
+        assertEquals(3, status.getTotalItems());
+        assertEquals(3, status.getProcessedItems());
+        assertEquals(6, status.getCreated());
+    }
+
+    @Test
+    void shouldRetryChunkThatCollidedWithConcurrentInsert() {
+        when(teamsService.getTeams()).thenReturn(List.of(team(UUID_4)));
+        when(jobCheckpointRepository.findById(JOB_NAME)).thenReturn(Optional.empty());
+        when(membershipsService.assignMissingMemberships(any(), any()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenReturn(List.of());
+
+        backfill.run();
+
+        assertEquals(JobStatus.State.COMPLETED, backfill.getStatus().getState());
+        verify(membershipsService, times(2)).assignMissingMemberships(any(), any());
+    }
+
+    @Test
+    void shouldReportFailure() {
+        when(jobCheckpointRepository.findById(JOB_NAME)).thenReturn(Optional.empty());
+        when(membershipsService.assignMissingMemberships(any(), any()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        backfill.run();
+
+        assertEquals(JobStatus.State.FAILED, backfill.getStatus().getState());
+        assertEquals("boom", backfill.getStatus().getError());
+    }
+
+    private static Team team(UUID id) {
+        return Team.builder().id(id).teamMemberIds(List.of(UUID_4)).build();
+    }
+}
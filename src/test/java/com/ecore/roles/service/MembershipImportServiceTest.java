@@ -0,0 +1,210 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.configuration.JobsConfigurationProperties;
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.model.JobCheckpoint;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipImport;
+import com.ecore.roles.repository.JobCheckpointRepository;
+import com.ecore.roles.repository.RoleCatalog;
+import com.ecore.roles.service.impl.MembershipImportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+
+import static com.ecore.roles.service.MembershipImportService.CHECKPOINT_PREFIX;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.TESTER_ROLE;
+import static com.ecore.roles.utils.TestData.TESTER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipImportServiceTest {
+
+    private static final String NAME = "legacy";
+
+    @Mock
+    private MembershipsService membershipsService;
+    @Mock
+    private RoleCatalog roleCatalog;
+    @Mock
+    private JobCheckpointRepository jobCheckpointRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final JobsConfigurationProperties properties = new JobsConfigurationProperties();
+    private MembershipImportServiceImpl importService;
+
+    @BeforeEach
+    void setUp() {
+        properties.getMembershipImport().setBatchSize(2);
+        importService =
+                new MembershipImportServiceImpl(membershipsService, roleCatalog, jobCheckpointRepository,
+                        transactionManager, new ObjectMapper(), properties, new SimpleMeterRegistry());
+        lenient().when(roleCatalog.findAll()).thenReturn(List.of(DEVELOPER_ROLE(), TESTER_ROLE()));
+        lenient().when(jobCheckpointRepository.save(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void shouldImportCsvInBatchesAndReportInvalidLines() {
+        when(jobCheckpointRepository.findById(CHECKPOINT_PREFIX + NAME)).thenReturn(Optional.empty());
+        when(membershipsService.importMemberships(anyList()))
+                .thenAnswer(invocation -> List.of(invocation.<List<Membership>>getArgument(0).get(0)));
+
+        MembershipImport result = importService.importMemberships(NAME, MembershipImportService.Format.CSV,
+                input("userId,teamId,role",
+                        csv(UUID_1, "developer"),
+                        csv(UUID_2, "\"Tester\""),
+                        csv(UUID_3, "Unknown"),
+                        "not-a-uuid," + ORDINARY_CORAL_LYNX_TEAM_UUID + ",Developer",
+                        csv(UUID_4, DEVELOPER_ROLE_UUID.toString())));
+
+        assertEquals(6, result.getLinesRead());
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getDuplicates());
+        assertEquals(2, result.getInvalid());
+        assertEquals(List.of("line 4: unknown role 'Unknown'", "line 5: invalid userId 'not-a-uuid'"),
+                result.getErrors());
+
+        ArgumentCaptor<List<Membership>> batches = ArgumentCaptor.forClass(List.class);
+        verify(membershipsService, times(2)).importMemberships(batches.capture());
+        assertEquals(List.of(List.of(UUID_1, UUID_2), List.of(UUID_4)), batches.getAllValues().stream()
+                .map(batch -> batch.stream().map(Membership::getUserId).collect(Collectors.toList()))
+                .collect(Collectors.toList()));
+        assertEquals(TESTER_ROLE_UUID, batches.getAllValues().get(0).get(1).getRole().getId());
+
+        ArgumentCaptor<JobCheckpoint> checkpoints = ArgumentCaptor.forClass(JobCheckpoint.class);
+        verify(jobCheckpointRepository, times(2)).save(checkpoints.capture());
+        assertEquals(3, checkpoints.getAllValues().get(0).getProcessed());
+        assertNull(checkpoints.getAllValues().get(0).getCompletedAt());
+        assertEquals(6, checkpoints.getAllValues().get(1).getProcessed());
+        assertEquals(2, checkpoints.getAllValues().get(1).getCreated());
+        assertNotNull(checkpoints.getAllValues().get(1).getCompletedAt());
+    }
+
+    @Test
+    void shouldResumeAfterCheckpointedLines() {
+        when(jobCheckpointRepository.findById(CHECKPOINT_PREFIX + NAME)).thenReturn(Optional.of(
+                JobCheckpoint.builder().name(CHECKPOINT_PREFIX + NAME).processed(2).created(2).build()));
+        when(membershipsService.importMemberships(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MembershipImport result = importService.importMemberships(NAME, MembershipImportService.Format.CSV,
+                input(csv(UUID_1, "Developer"), csv(UUID_2, "Developer"), csv(UUID_3, "Developer")));
+
+        assertEquals(2, result.getResumedAfterLine());
+        assertEquals(1, result.getLinesRead());
+        assertEquals(1, result.getCreated());
+        verify(membershipsService).importMemberships(
+                argThat(batch -> batch.size() == 1
+                        && batch.get(0).getUserId().equals(UUID_3)));
+        ArgumentCaptor<JobCheckpoint> checkpoint = ArgumentCaptor.forClass(JobCheckpoint.class);
+        verify(jobCheckpointRepository).save(checkpoint.capture());
+        assertEquals(3, checkpoint.getValue().getCreated());
+    }
+
+    @Test
+    void shouldRetryBatchAfterConcurrentInsert() {
+        when(jobCheckpointRepository.findById(CHECKPOINT_PREFIX + NAME)).thenReturn(Optional.empty());
+        when(membershipsService.importMemberships(anyList()))
+                .thenThrow(new DuplicateKeyException("concurrent insert"))
+                .thenAnswer(invocation -> List.of());
+
+        MembershipImport result = importService.importMemberships(NAME, MembershipImportService.Format.CSV,
+                input(csv(UUID_1, "Developer")));
+
+        assertEquals(0, result.getCreated());
+        assertEquals(1, result.getDuplicates());
+        verify(membershipsService, times(2)).importMemberships(anyList());
+    }
+
+    @Test
+    void shouldImportNdjson() {
+        when(jobCheckpointRepository.findById(CHECKPOINT_PREFIX + NAME)).thenReturn(Optional.empty());
+        when(membershipsService.importMemberships(anyList()))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        MembershipImport result = importService.importMemberships(NAME, MembershipImportService.Format.NDJSON,
+                input("{\"teamMemberId\":\"" + UUID_1 + "\",\"teamId\":\"" + ORDINARY_CORAL_LYNX_TEAM_UUID
+                        + "\",\"roleId\":\"" + DEVELOPER_ROLE_UUID + "\"}",
+                        "{\"userId\":\"" + UUID_2 + "\",\"teamId\":\"" + ORDINARY_CORAL_LYNX_TEAM_UUID
+                                + "\",\"role\":\"Tester\"}",
+                        "{\"userId\":\"" + UUID_3 + "\"}",
+                        "userId,teamId,role"));
+
+        assertEquals(2, result.getCreated());
+        assertEquals(List.of("line 3: missing teamId", "line 4: not a JSON object"), result.getErrors());
+    }
+
+    @Test
+    void shouldRejectBlankName() {
+        assertThrows(InvalidArgumentException.class, () -> importService.importMemberships(" ",
+                MembershipImportService.Format.CSV, input(csv(UUID_1, "Developer"))));
+    }
+
+    @Test
+    void shouldRejectAnImportWhileOneWithTheSameNameIsRunning() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(jobCheckpointRepository.findById(CHECKPOINT_PREFIX + NAME)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return Optional.empty();
+        });
+        CompletableFuture<MembershipImport> first = CompletableFuture.supplyAsync(() -> importService
+                .importMemberships(NAME, MembershipImportService.Format.CSV, input("userId,teamId,role")));
+        started.await();
+
+        ResourceExistsException exception = assertThrows(ResourceExistsException.class,
+                () -> importService.importMemberships(NAME, MembershipImportService.Format.CSV,
+                        input(csv(UUID_1, "Developer"))));
+
+        release.countDown();
+        assertEquals("MembershipImport already exists. An import named 'legacy' is already running.",
+                exception.getMessage());
+        assertEquals(1, first.join().getLinesRead());
+    }
+
+    private static String csv(UUID userId, String role) {
+        return userId + "," + ORDINARY_CORAL_LYNX_TEAM_UUID + "," + role;
+    }
+
+    private static InputStream input(String... lines) {
+        return new ByteArrayInputStream((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+}
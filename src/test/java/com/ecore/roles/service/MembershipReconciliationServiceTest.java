@@ -0,0 +1,213 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.configuration.JobsConfigurationProperties;
+import com.ecore.roles.model.JobStatus.State;
+import com.ecore.roles.model.MembershipRef;
+import com.ecore.roles.model.ReconciliationReport;
+import com.ecore.roles.repository.MembershipRepository;
+import com.ecore.roles.service.impl.MembershipReconciliationServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MembershipReconciliationServiceTest {
+
+    private static final UUID TEAM_A = UUID.fromString("aaaaaaaa-aaaa-aaaa-aaaa-aaaaaaaaaaaa");
+    private static final UUID TEAM_B = UUID.fromString("bbbbbbbb-bbbb-bbbb-bbbb-bbbbbbbbbbbb");
+
+    @Mock
+    private MembershipRepository membershipRepository;
+    @Mock
+    private MembershipsService membershipsService;
+    @Mock
+    private TeamsService teamsService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final JobsConfigurationProperties properties = new JobsConfigurationProperties();
+    private MembershipReconciliationServiceImpl reconciliation;
+
+    // team A keeps users 1 and 2, team B no longer exists
+    private final MembershipRef kept1 = ref(TEAM_A, UUID_1);
+    private final MembershipRef kept2 = ref(TEAM_A, UUID_2);
+    private final MembershipRef leftA = ref(TEAM_A, UUID_3);
+    private final MembershipRef orphanB1 = ref(TEAM_B, UUID_1);
+    private final MembershipRef orphanB2 = ref(TEAM_B, UUID_4);
+
+    @BeforeEach
+    void setUp() {
+        properties.getMembershipReconciliation().setParallelism(2);
+        properties.getMembershipReconciliation().setMaxQueuedTeams(1);
+        reconciliation = new MembershipReconciliationServiceImpl(membershipRepository, membershipsService,
+                teamsService, transactionManager, properties, new SimpleMeterRegistry(), 10);
+        lenient().when(membershipRepository.streamRefsOrderByTeamId())
+                .thenReturn(Stream.of(kept1, kept2, leftA, orphanB1, orphanB2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reconciliation.shutdown();
+    }
+
+    @Test
+    void shouldRefuseMoreWorkersThanHalfThePoolCanServe() {
+        properties.getMembershipReconciliation().setParallelism(5);
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> new MembershipReconciliationServiceImpl(membershipRepository, membershipsService,
+                        teamsService, transactionManager, properties, new SimpleMeterRegistry(), 10));
+
+        assertTrue(exception.getMessage().contains("must be between 1 and 4"));
+    }
+
+    @Test
+    void shouldReconcileInTheBackground() throws InterruptedException {
+        when(teamsService.getTeam(TEAM_A)).thenReturn(team(TEAM_A, UUID_1, UUID_2));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(null);
+        when(teamsService.fetchTeam(TEAM_B)).thenReturn(Optional.empty());
+
+        assertEquals(State.IDLE, reconciliation.getStatus().getState());
+        reconciliation.start(true);
+
+        ReconciliationReport report = awaitCompletion();
+        assertEquals(State.COMPLETED, report.getState());
+        assertEquals(3, report.getOrphansFound());
+        assertEquals(State.COMPLETED, reconciliation.stop().getState());
+    }
+
+    @Test
+    void shouldOnlyReportOrphansOnDryRun() {
+        when(teamsService.getTeam(TEAM_A)).thenReturn(team(TEAM_A, UUID_1, UUID_2));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(null);
+        when(teamsService.fetchTeam(TEAM_B)).thenReturn(Optional.empty());
+
+        ReconciliationReport report = reconciliation.reconcile(true);
+
+        assertTrue(report.isDryRun());
+        assertEquals(2, report.getTeamsScanned());
+        assertEquals(5, report.getMembershipsScanned());
+        assertEquals(3, report.getOrphansFound());
+        assertEquals(0, report.getOrphansRemoved());
+        assertEquals(3, report.getOrphans().size());
+        assertTrue(report.getOrphans().containsAll(List.of(leftA, orphanB1, orphanB2)));
+        verify(membershipsService, never()).removeMemberships(any());
+    }
+
+    @Test
+    void shouldRemoveOrphansInBatches() {
+        properties.getMembershipReconciliation().setDeleteBatchSize(1);
+        when(teamsService.getTeam(TEAM_A)).thenReturn(team(TEAM_A, UUID_1, UUID_2));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(null);
+        when(teamsService.fetchTeam(TEAM_B)).thenReturn(Optional.empty());
+        when(membershipsService.removeMemberships(any())).thenReturn(1);
+
+        ReconciliationReport report = reconciliation.reconcile(false);
+
+        assertEquals(3, report.getOrphansFound());
+        assertEquals(3, report.getOrphansRemoved());
+        verify(membershipsService).removeMemberships(List.of(leftA));
+        verify(membershipsService).removeMemberships(List.of(orphanB1));
+        verify(membershipsService).removeMemberships(List.of(orphanB2));
+    }
+
+    @Test
+    void shouldSkipTeamsThatCannotBeLookedUp() {
+        when(teamsService.getTeam(TEAM_A)).thenThrow(new ResourceAccessException("timeout"));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(null);
+        when(teamsService.fetchTeam(TEAM_B)).thenReturn(Optional.empty());
+        when(membershipsService.removeMemberships(any())).thenReturn(2);
+
+        ReconciliationReport report = reconciliation.reconcile(false);
+
+        assertEquals(2, report.getTeamsScanned());
+        assertEquals(1, report.getTeamsFailed());
+        assertEquals(2, report.getOrphansRemoved());
+        verify(membershipsService).removeMemberships(List.of(orphanB1, orphanB2));
+    }
+
+    @Test
+    void shouldNotRemoveMembershipsOfATeamThatIsOnlyMissingFromTheCache() {
+        when(teamsService.getTeam(TEAM_A)).thenReturn(team(TEAM_A, UUID_1, UUID_2, UUID_3));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(null);
+        when(teamsService.fetchTeam(TEAM_B)).thenReturn(Optional.of(team(TEAM_B, UUID_1, UUID_4)));
+
+        ReconciliationReport report = reconciliation.reconcile(false);
+
+        assertEquals(0, report.getOrphansFound());
+        assertEquals(0, report.getTeamsFailed());
+        verify(membershipsService, never()).removeMemberships(any());
+    }
+
+    @Test
+    void shouldCountATeamAsFailedUnlessTheTeamsApiSaysItIsGone() {
+        when(teamsService.getTeam(TEAM_A)).thenReturn(team(TEAM_A, UUID_1, UUID_2, UUID_3));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(Team.builder().id(TEAM_B).build());
+        when(teamsService.fetchTeam(TEAM_B))
+                .thenThrow(new NullPointerException("Teams API returned no body"));
+
+        ReconciliationReport report = reconciliation.reconcile(false);
+
+        assertEquals(1, report.getTeamsFailed());
+        assertEquals(0, report.getOrphansFound());
+        verify(membershipsService, never()).removeMemberships(any());
+    }
+
+    @Test
+    void shouldCapReportedOrphans() {
+        properties.getMembershipReconciliation().setMaxReportedOrphans(1);
+        when(teamsService.getTeam(TEAM_A)).thenReturn(team(TEAM_A));
+        when(teamsService.getTeam(TEAM_B)).thenReturn(null);
+        when(teamsService.fetchTeam(TEAM_B)).thenReturn(Optional.empty());
+
+        ReconciliationReport report = reconciliation.reconcile(true);
+
+        assertEquals(5, report.getOrphansFound());
+        assertEquals(1, report.getOrphans().size());
+    }
+
+    private ReconciliationReport awaitCompletion() throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            ReconciliationReport report = reconciliation.getStatus();
+            if (report.getState() != State.RUNNING) {
+                return report;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Reconciliation did not complete");
+    }
+
+    private static MembershipRef ref(UUID teamId, UUID userId) {
+        return new MembershipRef(UUID.randomUUID(), teamId, userId, DEVELOPER_ROLE_UUID);
+    }
+
+    private static Team team(UUID id, UUID... members) {
+        return Team.builder().id(id).teamMemberIds(List.of(members)).build();
+    }
+}
@@ -1,25 +1,61 @@
 package com.ecore.roles.service;
 
+import com.ecore.roles.client.model.Team;
 import com.ecore.roles.exception.InvalidArgumentException;
 import com.ecore.roles.exception.ResourceExistsException;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.AuditEvent;
 import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.MembershipKey;
+import com.ecore.roles.model.MembershipRef;
+import com.ecore.roles.model.MembershipResult;
+import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.AuditLog;
+import com.ecore.roles.repository.DataVersions;
+import com.ecore.roles.repository.MembershipBatchInserter;
+import com.ecore.roles.repository.MembershipIndex;
 import com.ecore.roles.repository.MembershipRepository;
-import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.repository.RoleCatalog;
 import com.ecore.roles.service.impl.MembershipsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
+import org.springframework.web.client.HttpServerErrorException;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+import static com.ecore.roles.service.MembershipsService.MAX_PAGE_SIZE;
 import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
 import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
+import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE_UUID;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.INVALID_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
@@ -32,20 +68,39 @@ class MembershipsServiceTest {
     @Mock
     private MembershipRepository membershipRepository;
     @Mock
-    private RoleRepository roleRepository;
+    private RoleCatalog roleCatalog;
     @Mock
     private UsersService usersService;
     @Mock
     private TeamsService teamsService;
+    @Mock
+    private DataVersions dataVersions;
+    @Mock
+    private MembershipIndex membershipIndex;
+    @Mock
+    private AuditLog auditLog;
+    @Mock
+    private MembershipBatchInserter membershipBatchInserter;
+    @Mock
+    private TransactionOperations transactionOperations;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionOperations.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0)
+                        .doInTransaction(null));
+    }
 
     @Test
     public void shouldCreateMembership() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
-        when(roleRepository.findById(expectedMembership.getRole().getId()))
+        when(roleCatalog.findById(expectedMembership.getRole().getId()))
                 .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
         when(membershipRepository.findByUserIdAndTeamId(expectedMembership.getUserId(),
                 expectedMembership.getTeamId()))
                         .thenReturn(Optional.empty());
+        when(teamsService.getTeam(expectedMembership.getTeamId()))
+                .thenReturn(ORDINARY_CORAL_LYNX_TEAM());
         when(membershipRepository
                 .save(expectedMembership))
                         .thenReturn(expectedMembership);
@@ -54,7 +109,41 @@ class MembershipsServiceTest {
 
         assertNotNull(actualMembership);
         assertEquals(actualMembership, expectedMembership);
-        verify(roleRepository).findById(expectedMembership.getRole().getId());
+        verify(roleCatalog).findById(expectedMembership.getRole().getId());
+        verify(teamsService).getTeam(expectedMembership.getTeamId());
+        verify(membershipIndex).added(expectedMembership);
+        verify(auditLog).record(any(AuditEvent.class));
+    }
+
+    @Test
+    public void shouldFailToCreateMembershipWhenTeamDoesNotExist() {
+        Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        when(roleCatalog.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> membershipsService.assignRoleToMembership(expectedMembership));
+
+        assertEquals(format("Team %s not found", expectedMembership.getTeamId()), exception.getMessage());
+        verify(transactionOperations, times(0)).execute(any());
+        verify(membershipRepository, times(0)).save(any());
+    }
+
+    @Test
+    public void shouldFailToCreateMembershipWhenUserIsNotATeamMember() {
+        Membership expectedMembership = INVALID_MEMBERSHIP();
+        when(roleCatalog.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+        when(teamsService.getTeam(expectedMembership.getTeamId()))
+                .thenReturn(ORDINARY_CORAL_LYNX_TEAM());
+
+        InvalidArgumentException exception = assertThrows(InvalidArgumentException.class,
+                () -> membershipsService.assignRoleToMembership(expectedMembership));
+
+        assertEquals("Invalid 'Membership' object. The provided user doesn't belong to the provided team.",
+                exception.getMessage());
+        verify(transactionOperations, times(0)).execute(any());
+        verify(membershipRepository, times(0)).save(any());
     }
 
     @Test
@@ -66,6 +155,10 @@ class MembershipsServiceTest {
     @Test
     public void shouldFailToCreateMembershipWhenItExists() {
         Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        when(roleCatalog.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+        when(teamsService.getTeam(expectedMembership.getTeamId()))
+                .thenReturn(ORDINARY_CORAL_LYNX_TEAM());
         when(membershipRepository.findByUserIdAndTeamId(expectedMembership.getUserId(),
                 expectedMembership.getTeamId()))
                         .thenReturn(Optional.of(expectedMembership));
@@ -74,9 +167,27 @@ class MembershipsServiceTest {
                 () -> membershipsService.assignRoleToMembership(expectedMembership));
 
         assertEquals("Membership already exists", exception.getMessage());
-        verify(roleRepository, times(0)).getById(any());
-        verify(usersService, times(0)).getUser(any());
-        verify(teamsService, times(0)).getTeam(any());
+        verify(membershipRepository, times(0)).save(any());
+        verify(membershipIndex, times(0)).added(any(Membership.class));
+    }
+
+    @Test
+    public void shouldCallTheTeamsApiBeforeOpeningTheTransaction() {
+        Membership expectedMembership = DEFAULT_MEMBERSHIP();
+        when(roleCatalog.findById(expectedMembership.getRole().getId()))
+                .thenReturn(Optional.ofNullable(DEVELOPER_ROLE()));
+        when(teamsService.getTeam(expectedMembership.getTeamId()))
+                .thenReturn(ORDINARY_CORAL_LYNX_TEAM());
+        when(membershipRepository.save(expectedMembership)).thenReturn(expectedMembership);
+
+        membershipsService.assignRoleToMembership(expectedMembership);
+
+        InOrder inOrder = inOrder(teamsService, transactionOperations, membershipRepository);
+        inOrder.verify(teamsService).getTeam(expectedMembership.getTeamId());
+        inOrder.verify(transactionOperations).execute(any());
+        inOrder.verify(membershipRepository).findByUserIdAndTeamId(expectedMembership.getUserId(),
+                expectedMembership.getTeamId());
+        inOrder.verify(membershipRepository).save(expectedMembership);
     }
 
     @Test
@@ -89,7 +200,7 @@ class MembershipsServiceTest {
 
         assertEquals("Invalid 'Role' object", exception.getMessage());
         verify(membershipRepository, times(0)).findByUserIdAndTeamId(any(), any());
-        verify(roleRepository, times(0)).getById(any());
+        verify(roleCatalog, times(0)).findById(any());
         verify(usersService, times(0)).getUser(any());
         verify(teamsService, times(0)).getTeam(any());
     }
@@ -100,4 +211,124 @@ class MembershipsServiceTest {
                 () -> membershipsService.getMemberships(null));
     }
 
+    @Test
+    public void shouldAssignRolesToMembershipsInBulk() {
+        Membership created = DEFAULT_MEMBERSHIP();
+        created.setUserId(UUID_2);
+        Membership existing = DEFAULT_MEMBERSHIP();
+        Membership unknownRole = DEFAULT_MEMBERSHIP();
+        unknownRole.setUserId(UUID_3);
+        unknownRole.setRole(Role.builder().id(UUID_1).build());
+        Membership repeated = DEFAULT_MEMBERSHIP();
+        repeated.setUserId(UUID_2);
+        when(roleCatalog.findAllById(anyCollection()))
+                .thenReturn(Map.of(DEVELOPER_ROLE().getId(), DEVELOPER_ROLE()));
+        when(membershipRepository.findKeysByTeamIdInAndUserIdIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(MembershipKey.of(existing)));
+        when(teamsService.getTeam(created.getTeamId()))
+                .thenReturn(ORDINARY_CORAL_LYNX_TEAM());
+
+        List<MembershipResult> results = membershipsService.assignRolesToMemberships(
+                List.of(created, existing, unknownRole, repeated));
+
+        assertEquals(4, results.size());
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(400, results.get(1).getStatus());
+        assertEquals("Membership already exists", results.get(1).getError());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals(format("Role %s not found", UUID_1), results.get(2).getError());
+        assertEquals(400, results.get(3).getStatus());
+        verify(roleCatalog).findAllById(anyCollection());
+        verify(membershipRepository).saveAll(List.of(created));
+    }
+
+    @Test
+    public void shouldFailOnlyMembershipsOfTeamsThatCouldNotBeLookedUp() {
+        Membership created = DEFAULT_MEMBERSHIP();
+        Membership unavailableTeam = DEFAULT_MEMBERSHIP();
+        unavailableTeam.setTeamId(UUID_4);
+        when(roleCatalog.findAllById(anyCollection()))
+                .thenReturn(Map.of(DEVELOPER_ROLE().getId(), DEVELOPER_ROLE()));
+        when(teamsService.getTeam(created.getTeamId()))
+                .thenReturn(ORDINARY_CORAL_LYNX_TEAM());
+        when(teamsService.getTeam(UUID_4))
+                .thenThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        List<MembershipResult> results = membershipsService.assignRolesToMemberships(
+                List.of(created, unavailableTeam));
+
+        assertEquals(201, results.get(0).getStatus());
+        assertEquals(502, results.get(1).getStatus());
+        verify(membershipRepository).saveAll(List.of(created));
+    }
+
+    @Test
+    public void shouldImportOnlyMembershipsThatDoNotExist() {
+        Membership existing = DEFAULT_MEMBERSHIP();
+        existing.setId(null);
+        Membership missing = DEFAULT_MEMBERSHIP();
+        missing.setId(null);
+        missing.setUserId(UUID_2);
+        Membership repeated = DEFAULT_MEMBERSHIP();
+        repeated.setId(null);
+        repeated.setUserId(UUID_2);
+        when(membershipRepository.findKeysByTeamIdInAndUserIdIn(Set.of(ORDINARY_CORAL_LYNX_TEAM_UUID),
+                Set.of(GIANNI_USER_UUID, UUID_2)))
+                        .thenReturn(List.of(MembershipKey.of(existing)));
+
+        List<Membership> imported =
+                membershipsService.importMemberships(List.of(existing, missing, repeated));
+
+        assertEquals(List.of(missing), imported);
+        assertNotNull(missing.getId());
+        verify(membershipBatchInserter).insert(List.of(missing));
+        verify(membershipIndex).added(List.of(missing));
+        verify(dataVersions).changed(DataVersions.Dataset.MEMBERSHIPS);
+    }
+
+    @Test
+    public void shouldRemoveMemberships() {
+        MembershipRef orphan = new MembershipRef(UUID_1, ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_4,
+                DEVELOPER_ROLE_UUID);
+        when(membershipRepository.deleteByIdIn(List.of(UUID_1))).thenReturn(1);
+
+        assertEquals(1, membershipsService.removeMemberships(List.of(orphan)));
+
+        verify(membershipIndex).removed(List.of(new MembershipKey(ORDINARY_CORAL_LYNX_TEAM_UUID, UUID_4)));
+        verify(dataVersions).changed(DataVersions.Dataset.MEMBERSHIPS);
+    }
+
+    @Test
+    public void shouldAssignRoleToTeamMembersWithoutMembership() {
+        Team team = ORDINARY_CORAL_LYNX_TEAM();
+        Team emptyTeam = Team.builder().id(UUID_1).build();
+        when(membershipRepository.findKeysByTeamIdInAndUserIdIn(Set.of(team.getId()),
+                Set.copyOf(team.getTeamMemberIds())))
+                        .thenReturn(List.of(new MembershipKey(team.getId(), GIANNI_USER_UUID)));
+
+        List<Membership> created = membershipsService.assignMissingMemberships(DEVELOPER_ROLE(),
+                List.of(team, emptyTeam));
+
+        assertEquals(List.of(UUID_2, UUID_3),
+                created.stream().map(Membership::getUserId).collect(Collectors.toList()));
+        created.forEach(m -> {
+            assertEquals(team.getId(), m.getTeamId());
+            assertEquals(DEVELOPER_ROLE_UUID, m.getRole().getId());
+        });
+        verify(membershipRepository).saveAll(created);
+        verify(membershipIndex).added(created);
+    }
+
+    @Test
+    public void shouldGetMembershipsPageAfterCursorWithCappedLimit() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(membershipRepository.findPageByRoleIdAfter(DEVELOPER_ROLE_UUID, UUID_1,
+                PageRequest.of(0, MAX_PAGE_SIZE)))
+                        .thenReturn(List.of(membership));
+
+        List<Membership> page = membershipsService.getMemberships(DEVELOPER_ROLE_UUID, UUID_1, 5_000);
+
+        assertEquals(List.of(membership), page);
+        verify(membershipRepository, times(0)).findPageByRoleId(any(), any());
+    }
 }
@@ -1,9 +1,12 @@
 package com.ecore.roles.service;
 
 import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.AuditEvent;
+import com.ecore.roles.model.Membership;
 import com.ecore.roles.model.Role;
+import com.ecore.roles.repository.AuditLog;
 import com.ecore.roles.repository.MembershipRepository;
-import com.ecore.roles.repository.RoleRepository;
+import com.ecore.roles.repository.RoleCatalog;
 import com.ecore.roles.service.impl.RolesServiceImpl;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,12 +16,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Optional;
 
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
 import static com.ecore.roles.utils.TestData.DEVELOPER_ROLE;
 import static com.ecore.roles.utils.TestData.UUID_1;
 import static java.lang.String.format;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,7 +34,7 @@ class RolesServiceTest {
     private RolesServiceImpl rolesService;
 
     @Mock
-    private RoleRepository roleRepository;
+    private RoleCatalog roleCatalog;
 
     @Mock
     private MembershipRepository membershipRepository;
@@ -36,15 +42,19 @@ class RolesServiceTest {
     @Mock
     private MembershipsService membershipsService;
 
+    @Mock
+    private AuditLog auditLog;
+
     @Test
     public void shouldCreateRole() {
         Role developerRole = DEVELOPER_ROLE();
-        when(roleRepository.save(developerRole)).thenReturn(developerRole);
+        when(roleCatalog.save(developerRole)).thenReturn(developerRole);
 
         Role role = rolesService.CreateRole(developerRole);
 
         assertNotNull(role);
         assertEquals(developerRole, role);
+        verify(auditLog).record(any(AuditEvent.class));
     }
 
     @Test
@@ -56,7 +66,7 @@ class RolesServiceTest {
     @Test
     public void shouldReturnRoleWhenRoleIdExists() {
         Role developerRole = DEVELOPER_ROLE();
-        when(roleRepository.findById(developerRole.getId())).thenReturn(Optional.of(developerRole));
+        when(roleCatalog.findById(developerRole.getId())).thenReturn(Optional.of(developerRole));
 
         Role role = rolesService.GetRole(developerRole.getId());
 
@@ -71,4 +81,26 @@ class RolesServiceTest {
 
         assertEquals(format("Role %s not found", UUID_1), exception.getMessage());
     }
+
+    @Test
+    public void shouldReturnRoleWhenUserHasMembershipInTeam() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(membershipRepository.findByUserIdAndTeamId(membership.getUserId(), membership.getTeamId()))
+                .thenReturn(Optional.of(membership));
+
+        Role role = rolesService.GetRole(membership.getUserId(), membership.getTeamId());
+
+        assertEquals(membership.getRole(), role);
+    }
+
+    @Test
+    public void shouldFailToGetRoleWhenUserHasNoMembershipInTeam() {
+        Membership membership = DEFAULT_MEMBERSHIP();
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rolesService.GetRole(membership.getUserId(), membership.getTeamId()));
+
+        assertEquals(format("Membership for user %s and team %s not found",
+                membership.getUserId(), membership.getTeamId()), exception.getMessage());
+    }
 }
@@ -0,0 +1,133 @@
+package com.ecore.roles.service;
+
+import com.ecore.roles.client.model.Team;
+import com.ecore.roles.client.model.User;
+import com.ecore.roles.exception.ResourceNotFoundException;
+import com.ecore.roles.model.LookupResult;
+import com.ecore.roles.model.Membership;
+import com.ecore.roles.model.TeamRoster;
+import com.ecore.roles.model.TeamRosterMember;
+import com.ecore.roles.service.impl.RostersServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static com.ecore.roles.service.UsersService.MAX_BATCH_SIZE;
+import static com.ecore.roles.utils.TestData.DEFAULT_MEMBERSHIP;
+import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
+import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RostersServiceTest {
+
+    private RostersServiceImpl rostersService;
+    @Mock
+    private TeamsService teamsService;
+    @Mock
+    private UsersService usersService;
+    @Mock
+    private MembershipsService membershipsService;
+
+    @BeforeEach
+    void setUp() {
+        rostersService = new RostersServiceImpl(teamsService, usersService, membershipsService,
+                Schedulers.immediate());
+    }
+
+    @Test
+    void shouldMergeTeamUsersAndMembershipsIntoRoster() {
+        Team team = ORDINARY_CORAL_LYNX_TEAM();
+        team.setTeamLeadId(UUID_2);
+        User gianniUser = GIANNI_USER();
+        User secondUser = User.builder().id(UUID_2).displayName("second").build();
+        Membership membership = DEFAULT_MEMBERSHIP();
+        when(teamsService.getTeamAsync(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenReturn(Mono.just(team));
+        when(usersService.lookupUsers(List.of(UUID_2, UUID_3, GIANNI_USER_UUID)))
+                .thenReturn(Mono.just(List.of(
+                        LookupResult.<User>builder().id(UUID_2).value(secondUser).status(200).build(),
+                        LookupResult.<User>builder().id(UUID_3).status(404).error("User not found").build(),
+                        LookupResult.<User>builder().id(GIANNI_USER_UUID).value(gianniUser).status(200)
+                                .build())));
+        when(membershipsService.getTeamMemberships(ORDINARY_CORAL_LYNX_TEAM_UUID))
+                .thenReturn(List.of(membership));
+
+        TeamRoster roster = rostersService.getTeamRoster(ORDINARY_CORAL_LYNX_TEAM_UUID).block();
+
+        assertNotNull(roster);
+        assertEquals(team, roster.getTeam());
+        List<TeamRosterMember> members = roster.getMembers();
+        assertEquals(3, members.size());
+
+        assertTrue(members.get(0).isTeamLead());
+        assertEquals(secondUser, members.get(0).getUser());
+        assertNull(members.get(0).getRole());
+
+        assertNull(members.get(1).getUser());
+        assertEquals("User not found", members.get(1).getError());
+
+        assertFalse(members.get(2).isTeamLead());
+        assertEquals(gianniUser, members.get(2).getUser());
+        assertEquals(membership.getRole(), members.get(2).getRole());
+    }
+
+    @Test
+    void shouldLookUpMembersOfLargeTeamsInBatches() {
+        List<UUID> memberIds = IntStream.range(0, MAX_BATCH_SIZE * 2 + 1)
+                .mapToObj(i -> UUID.randomUUID())
+                .collect(Collectors.toList());
+        Team team = Team.builder().id(ORDINARY_CORAL_LYNX_TEAM_UUID).teamMemberIds(memberIds).build();
+        when(teamsService.getTeamAsync(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenReturn(Mono.just(team));
+        when(usersService.lookupUsers(anyList())).thenAnswer(invocation -> Mono.just(
+                invocation.<List<UUID>>getArgument(0).stream()
+                        .map(id -> LookupResult.<User>builder().id(id).status(200).build())
+                        .collect(Collectors.toList())));
+        when(membershipsService.getTeamMemberships(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenReturn(List.of());
+
+        TeamRoster roster = rostersService.getTeamRoster(ORDINARY_CORAL_LYNX_TEAM_UUID).block();
+
+        assertNotNull(roster);
+        assertEquals(memberIds, roster.getMembers().stream()
+                .map(TeamRosterMember::getUserId)
+                .collect(Collectors.toList()));
+        verify(usersService).lookupUsers(memberIds.subList(0, MAX_BATCH_SIZE));
+        verify(usersService).lookupUsers(memberIds.subList(MAX_BATCH_SIZE, MAX_BATCH_SIZE * 2));
+        verify(usersService).lookupUsers(memberIds.subList(MAX_BATCH_SIZE * 2, memberIds.size()));
+    }
+
+    @Test
+    void shouldFailToGetRosterWhenTeamDoesNotExist() {
+        when(teamsService.getTeamAsync(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenReturn(
+                Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)));
+
+        ResourceNotFoundException exception = assertThrows(ResourceNotFoundException.class,
+                () -> rostersService.getTeamRoster(ORDINARY_CORAL_LYNX_TEAM_UUID).block());
+
+        assertEquals(String.format("Team %s not found", ORDINARY_CORAL_LYNX_TEAM_UUID),
+                exception.getMessage());
+        verifyNoInteractions(usersService);
+    }
+}
@@ -1,8 +1,10 @@
 package com.ecore.roles.service;
 
+import com.ecore.roles.client.ClientsMirror;
 import com.ecore.roles.client.TeamsClient;
 import com.ecore.roles.client.model.Team;
 import com.ecore.roles.service.impl.TeamsServiceImpl;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -10,10 +12,18 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.Optional;
+import java.util.UUID;
 
 import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM;
 import static com.ecore.roles.utils.TestData.ORDINARY_CORAL_LYNX_TEAM_UUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,14 +33,33 @@ class TeamsServiceTest {
     private TeamsServiceImpl TeamsService;
     @Mock
     private TeamsClient TeamsClient;
+    @Mock
+    private LoadingCache<UUID, Team> teamsCache;
+    @Mock
+    private ClientsMirror clientsMirror;
 
     @Test
     void shouldGetTeamWhenTeamIdExists() {
         Team ordinaryCoralLynxTeam = ORDINARY_CORAL_LYNX_TEAM();
-        when(TeamsClient.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID))
-                .thenReturn(ResponseEntity
-                        .status(HttpStatus.OK)
-                        .body(ordinaryCoralLynxTeam));
+        when(teamsCache.get(ORDINARY_CORAL_LYNX_TEAM_UUID))
+                .thenReturn(ordinaryCoralLynxTeam);
         assertNotNull(TeamsService.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID));
     }
+
+    @Test
+    void shouldFetchNoTeamOnlyWhenTheTeamsApiAnswersNotFound() {
+        when(TeamsClient.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID))
+                .thenThrow(
+                        HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        assertEquals(Optional.empty(), TeamsService.fetchTeam(ORDINARY_CORAL_LYNX_TEAM_UUID));
+        verify(teamsCache, never()).get(ORDINARY_CORAL_LYNX_TEAM_UUID);
+    }
+
+    @Test
+    void shouldFailToFetchATeamWithoutABody() {
+        when(TeamsClient.getTeam(ORDINARY_CORAL_LYNX_TEAM_UUID)).thenReturn(ResponseEntity.ok().build());
+
+        assertThrows(NullPointerException.class, () -> TeamsService.fetchTeam(ORDINARY_CORAL_LYNX_TEAM_UUID));
+    }
 }
@@ -1,19 +1,50 @@
 package com.ecore.roles.service;
 
+import com.ecore.roles.client.ReactiveUsersClient;
+import com.ecore.roles.client.ClientsMirror;
+import com.ecore.roles.client.MirrorSnapshot;
 import com.ecore.roles.client.UsersClient;
 import com.ecore.roles.client.model.User;
+import com.ecore.roles.configuration.ClientsConfigurationProperties;
+import com.ecore.roles.exception.InvalidArgumentException;
+import com.ecore.roles.model.LookupResult;
 import com.ecore.roles.service.impl.UsersServiceImpl;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.ecore.roles.utils.TestData.GIANNI_USER;
+import static com.ecore.roles.utils.TestData.GIANNI_USER_UUID;
 import static com.ecore.roles.utils.TestData.UUID_1;
+import static com.ecore.roles.utils.TestData.UUID_2;
+import static com.ecore.roles.utils.TestData.UUID_3;
+import static com.ecore.roles.utils.TestData.UUID_4;
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,15 +54,106 @@ class UsersServiceTest {
     private UsersServiceImpl usersService;
     @Mock
     private UsersClient usersClient;
+    @Mock
+    private ReactiveUsersClient reactiveUsersClient;
+    @Mock
+    private LoadingCache<UUID, User> usersCache;
+    @Mock
+    private ClientsMirror clientsMirror;
+    @Spy
+    private ClientsConfigurationProperties clientsConfigurationProperties =
+            new ClientsConfigurationProperties();
 
     @Test
     void shouldGetUserWhenUserIdExists() {
         User gianniUser = GIANNI_USER();
-        when(usersClient.getUser(UUID_1))
+        when(usersCache.get(UUID_1))
+                .thenReturn(gianniUser);
+
+        assertNotNull(usersService.getUser(UUID_1));
+    }
+
+    @Test
+    void shouldGetUsersFromClient() {
+        User gianniUser = GIANNI_USER();
+        when(usersClient.getUsers())
                 .thenReturn(ResponseEntity
                         .status(HttpStatus.OK)
-                        .body(gianniUser));
+                        .body(List.of(gianniUser)));
 
-        assertNotNull(usersService.getUser(UUID_1));
+        assertEquals(List.of(gianniUser), usersService.getUsers());
+    }
+
+    @Test
+    void shouldGetUserAsyncFromCacheWithoutCallingClient() {
+        User gianniUser = GIANNI_USER();
+        when(usersCache.getIfPresent(UUID_1)).thenReturn(gianniUser);
+
+        assertEquals(gianniUser, usersService.getUserAsync(UUID_1).block());
+        verifyNoInteractions(reactiveUsersClient);
+    }
+
+    @Test
+    void shouldGetUserAsyncFromClientAndCacheIt() {
+        User gianniUser = GIANNI_USER();
+        when(reactiveUsersClient.getUser(UUID_1)).thenReturn(Mono.just(gianniUser));
+
+        assertEquals(gianniUser, usersService.getUserAsync(UUID_1).block());
+        verify(usersCache).put(UUID_1, gianniUser);
+    }
+
+    @Test
+    void shouldLookupUsersFromCacheAndClientInRequestOrder() {
+        User cachedUser = GIANNI_USER();
+        User fetchedUser = User.builder().id(UUID_2).displayName("fetched").build();
+        when(usersCache.getIfPresent(any())).thenAnswer(invocation -> UUID_1.equals(invocation.getArgument(0))
+                ? cachedUser
+                : null);
+        when(reactiveUsersClient.getUser(UUID_2)).thenReturn(Mono.just(fetchedUser));
+        when(reactiveUsersClient.getUser(UUID_3))
+                .thenReturn(
+                        Mono.error(WebClientResponseException.create(404, "Not Found", null, null, null)));
+        when(reactiveUsersClient.getUser(UUID_4)).thenReturn(Mono.error(
+                CallNotPermittedException
+                        .createCallNotPermittedException(CircuitBreaker.ofDefaults("users"))));
+
+        List<LookupResult<User>> results =
+                usersService.lookupUsers(List.of(UUID_3, UUID_1, UUID_2, UUID_4, UUID_1)).block();
+
+        assertNotNull(results);
+        assertEquals(List.of(UUID_3, UUID_1, UUID_2, UUID_4),
+                results.stream().map(LookupResult::getId).collect(Collectors.toList()));
+        assertEquals(List.of(404, 200, 200, 503),
+                results.stream().map(LookupResult::getStatus).collect(Collectors.toList()));
+        assertEquals(format("User %s not found", UUID_3), results.get(0).getError());
+        assertEquals(cachedUser, results.get(1).getValue());
+        assertEquals(fetchedUser, results.get(2).getValue());
+        verify(reactiveUsersClient, never()).getUser(UUID_1);
+        verify(usersCache).put(UUID_2, fetchedUser);
+    }
+
+    @Test
+    void shouldFailToLookupMoreUsersThanTheBatchLimit() {
+        List<UUID> ids = Stream.generate(UUID::randomUUID)
+                .limit(UsersService.MAX_BATCH_SIZE + 1)
+                .collect(Collectors.toList());
+
+        assertThrows(InvalidArgumentException.class, () -> usersService.lookupUsers(ids));
+        verifyNoInteractions(reactiveUsersClient);
+    }
+
+    @Test
+    void shouldServeUsersFromMirrorWithoutCallingUpstream() {
+        User gianniUser = GIANNI_USER();
+        MirrorSnapshot<User> snapshot = mock(MirrorSnapshot.class);
+        when(snapshot.get(GIANNI_USER_UUID)).thenReturn(gianniUser);
+        when(snapshot.getAll()).thenReturn(List.of(gianniUser));
+        when(clientsMirror.users()).thenReturn(Optional.of(snapshot));
+
+        assertEquals(gianniUser, usersService.getUser(GIANNI_USER_UUID));
+        assertNull(usersService.getUser(UUID_1));
+        assertEquals(List.of(gianniUser), usersService.getUsers());
+        assertEquals(gianniUser, usersService.getUserAsync(GIANNI_USER_UUID).block());
+        verifyNoInteractions(usersCache, usersClient, reactiveUsersClient);
     }
 }
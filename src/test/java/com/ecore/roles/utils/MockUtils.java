@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
@@ -43,4 +44,23 @@ public class MockUtils {
             e.printStackTrace();
         }
     }
+
+    public static void mockGetTeamNotFound(MockRestServiceServer mockServer, UUID teamId) {
+        mockServer.expect(ExpectedCount.manyTimes(), requestTo("http://test.com/teams/" + teamId))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND));
+    }
+
+    public static void mockGetTeams(MockRestServiceServer mockServer, List<Team> teams) {
+        try {
+            mockServer.expect(ExpectedCount.manyTimes(), requestTo("http://test.com/teams"))
+                    .andExpect(method(HttpMethod.GET))
+                    .andRespond(
+                            withStatus(HttpStatus.OK)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(new ObjectMapper().writeValueAsString(teams)));
+        } catch (JsonProcessingException e) {
+            e.printStackTrace();
+        }
+    }
 }
@@ -0,0 +1,51 @@
+package com.ecore.roles.web.rest;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.StandardServletAsyncWebRequest;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AsyncTimeoutsTest {
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final StandardServletAsyncWebRequest asyncWebRequest =
+            new StandardServletAsyncWebRequest(request, new MockHttpServletResponse());
+
+    @BeforeEach
+    void setUp() {
+        request.setAsyncSupported(true);
+        asyncWebRequest.setTimeout(30_000L);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldApplyTheTimeoutSetByTheHandler() {
+        AsyncTimeouts.set(Duration.ofHours(1));
+
+        new AsyncTimeouts().beforeConcurrentHandling(asyncWebRequest, () -> null);
+        asyncWebRequest.startAsync();
+
+        assertEquals(Duration.ofHours(1).toMillis(), request.getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void shouldKeepTheDefaultTimeoutOtherwise() {
+        new AsyncTimeouts().beforeConcurrentHandling(asyncWebRequest, () -> null);
+        asyncWebRequest.startAsync();
+
+        assertEquals(30_000L, request.getAsyncContext().getTimeout());
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecore.roles.web.rest;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExportExecutorTest {
+
+    private final ExportExecutor exportExecutor =
+            new ExportExecutor(BulkheadRegistry.of(BulkheadConfig.custom()
+                    .maxConcurrentCalls(1)
+                    .maxWaitDuration(Duration.ZERO)
+                    .build()));
+    private final AsyncExecutors asyncExecutors = new AsyncExecutors(new SimpleAsyncTaskExecutor("mvc-"));
+
+    @BeforeEach
+    void setUp() {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        exportExecutor.stop();
+    }
+
+    @Test
+    void shouldStreamTheExportOnTheExportPool() throws Exception {
+        StreamingResponseBody body = exportExecutor.submit(out -> out.write(1));
+
+        String thread = asyncExecutors.submit(() -> {
+            body.writeTo(new ByteArrayOutputStream());
+            return Thread.currentThread().getName();
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(thread).startsWith("export-");
+    }
+
+    @Test
+    void shouldKeepOtherResponsesOnTheDefaultExecutor() throws Exception {
+        String thread =
+                asyncExecutors.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+
+        assertThat(thread).startsWith("mvc-");
+    }
+
+    @Test
+    void shouldTurnAwayExportsBeyondTheLimitUntilOneIsWritten() throws Exception {
+        StreamingResponseBody first = exportExecutor.submit(out -> out.write(1));
+
+        assertThrows(BulkheadFullException.class, () -> exportExecutor.submit(out -> out.write(2)));
+
+        first.writeTo(new ByteArrayOutputStream());
+        exportExecutor.submit(out -> out.write(3));
+    }
+}
@@ -0,0 +1,136 @@
+package db.migration;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static java.lang.String.format;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CompactUuidKeysMigrationTest {
+
+    private static final UUID DEVELOPER_ROLE_ID = UUID.fromString("1b3c333b-36e7-4b64-aa15-c22ed5908ce4");
+    private static final UUID TESTER_ROLE_ID = UUID.fromString("37969e22-26f3-11ec-9621-0242ac130002");
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        flyway("2").migrate();
+    }
+
+    @Test
+    void shouldConvertExistingRowsToBinaryKeys() {
+        UUID membershipId = UUID.randomUUID();
+        UUID teamId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("insert into membership (id, team_id, user_id, role_id) values (?, ?, ?, ?)",
+                membershipId.toString(), bytes(teamId), bytes(userId), DEVELOPER_ROLE_ID.toString());
+
+        flyway("3").migrate();
+
+        assertThat(jdbcTemplate.queryForObject("select name from role where id = ?", String.class,
+                bytes(DEVELOPER_ROLE_ID))).isEqualTo("Developer");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from role", Integer.class)).isEqualTo(3);
+        List<Map<String, Object>> memberships =
+                jdbcTemplate.queryForList("select id, team_id, user_id, role_id from membership");
+        assertThat(memberships).hasSize(1);
+        assertThat((byte[]) memberships.get(0).get("ID")).isEqualTo(bytes(membershipId));
+        assertThat((byte[]) memberships.get(0).get("TEAM_ID")).isEqualTo(bytes(teamId));
+        assertThat((byte[]) memberships.get(0).get("USER_ID")).isEqualTo(bytes(userId));
+        assertThat((byte[]) memberships.get(0).get("ROLE_ID")).isEqualTo(bytes(DEVELOPER_ROLE_ID));
+    }
+
+    @Test
+    void shouldStartOverAfterAnInterruptedCopy() {
+        jdbcTemplate.execute("create table role_v3 (id binary(16) not null primary key)");
+        jdbcTemplate.execute("create table membership_v3 (id binary(16) not null primary key)");
+
+        flyway("3").migrate();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from role", Integer.class)).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name in "
+                        + "('ROLE_V2', 'ROLE_V3', 'MEMBERSHIP_V2', 'MEMBERSHIP_V3')",
+                Integer.class))
+                        .isZero();
+    }
+
+    @Test
+    void shouldReportDuplicatesBeforeChangingAnything() {
+        UUID teamId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        jdbcTemplate.update("insert into membership (id, team_id, user_id, role_id) values (?, ?, ?, ?)",
+                UUID.randomUUID().toString(), bytes(teamId), bytes(userId), DEVELOPER_ROLE_ID.toString());
+        jdbcTemplate.update("insert into membership (id, team_id, user_id, role_id) values (?, ?, ?, ?)",
+                UUID.randomUUID().toString(), bytes(teamId), bytes(userId), TESTER_ROLE_ID.toString());
+        jdbcTemplate.update("insert into role (id, name) values (?, 'Developer')",
+                UUID.randomUUID().toString());
+
+        assertThatThrownBy(() -> flyway("3").migrate())
+                .hasStackTraceContaining("role name 'Developer': 2 rows")
+                .hasStackTraceContaining(format("membership team_id %s, user_id %s: 2 rows", teamId, userId));
+        assertThat(jdbcTemplate.queryForObject("select count(*) from membership", Integer.class))
+                .isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name in ('ROLE_V3', 'MEMBERSHIP_V3')",
+                Integer.class))
+                        .isZero();
+    }
+
+    @Test
+    void shouldFinishAnInterruptedSwapWithoutCopyingAgain() {
+        jdbcTemplate.execute(
+                "create table role_v3 (id binary(16) not null primary key, name varchar(255) not null)");
+        jdbcTemplate.execute("create table membership_v3 (id binary(16) not null primary key, "
+                + "team_id binary(16) not null, user_id binary(16) not null, role_id binary(16) not null)");
+        jdbcTemplate.update("insert into role_v3 (id, name) values (?, 'Developer')",
+                bytes(DEVELOPER_ROLE_ID));
+        jdbcTemplate.execute("alter table membership rename to membership_v2");
+        jdbcTemplate.execute("alter table role rename to role_v2");
+
+        flyway("3").migrate();
+
+        assertThat(jdbcTemplate.queryForList("select name from role", String.class))
+                .containsExactly("Developer");
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from information_schema.tables where table_name in "
+                        + "('ROLE_V2', 'ROLE_V3', 'MEMBERSHIP_V2', 'MEMBERSHIP_V3')",
+                Integer.class))
+                        .isZero();
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(distinct index_name) from information_schema.indexes where index_name = 'IDX_MEMBERSHIP_USER_ID_TEAM_ID'",
+                Integer.class))
+                        .isEqualTo(1);
+    }
+
+    @Test
+    void shouldApplyTheLaterMigrationsOnTop() {
+        flyway("latest").migrate();
+
+        assertThat(flyway("latest").info().pending()).isEmpty();
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure().dataSource(dataSource).target(target).load();
+    }
+
+    private static byte[] bytes(UUID id) {
+        return ByteBuffer.allocate(16)
+                .putLong(id.getMostSignificantBits())
+                .putLong(id.getLeastSignificantBits())
+                .array();
+    }
+}